@@ -3,27 +3,110 @@ package com.bigcompany.app;
 import com.bigcompany.core.Application;
 import com.bigcompany.reader.EmployeeCsvParser;
 
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * The {@code Main} class serves as the entry point for the application, which processes employee data from a specified CSV file to report salary discrepancies.
  * This class handles command-line arguments and initializes the {@code Application} with a {@code CsvReader} to read and process data.
  */
 public class Main {
+    private static final String USAGE =
+            "Usage: java Main [--pipelined | --disk-store <directory> [--cache-pages <count>] | --diff <previous file path> | --analytics | --shards <count> [--worker-heap <megabytes>] | --history <older file path>...] <file path>";
+    private static final String PIPELINED_OPTION = "--pipelined";
+    private static final String DISK_STORE_OPTION = "--disk-store";
+    private static final String CACHE_PAGES_OPTION = "--cache-pages";
+    private static final String DIFF_OPTION = "--diff";
+    private static final String ANALYTICS_OPTION = "--analytics";
+    private static final String SHARDS_OPTION = "--shards";
+    private static final String WORKER_HEAP_OPTION = "--worker-heap";
+    private static final String HISTORY_OPTION = "--history";
+    private static final int DEFAULT_CACHE_PAGES = 4096; // 32 MiB of 8 KiB pages
 
     /**
      * The entry point of the application.
-     * Expects a single command-line argument specifying the path to the CSV file containing employee data.
+     * Expects a command-line argument specifying the path to the CSV file containing employee data, optionally preceded by:
+     * <ul>
+     *     <li>{@code --pipelined} to run the processing stages as a pipeline, or</li>
+     *     <li>{@code --disk-store <directory>} to keep the organization in a disk-backed store in the given directory,
+     *     optionally followed by {@code --cache-pages <count>} to set the number of 8 KiB pages cached in memory, or</li>
+     *     <li>{@code --diff <previous file path>} to print only the issues that are new, resolved or changed compared to
+     *     the report of an older CSV file, or</li>
+     *     <li>{@code --analytics} to add span-of-control and per-level figures to the report, or</li>
+     *     <li>{@code --shards <count>} to analyze the organization in the given number of worker processes, optionally
+     *     followed by {@code --worker-heap <megabytes>} to set the maximum heap of every worker, or</li>
+     *     <li>{@code --history <older file path>...} to print trends over older CSV files, oldest first, and the given file;
+     *     must be the last option.</li>
+     * </ul>
      *
-     * @param args command-line arguments passed to the application. The first argument should be the file path to the input CSV file.
+     * @param args command-line arguments passed to the application. The last argument should be the file path to the input CSV file.
      */
     public static void main(String[] args) {
-        if (args.length < 1) {
-            System.err.println("Usage: java Main <file path>");
+        boolean pipelined = false;
+        boolean analytics = false;
+        Path storeDirectory = null;
+        String previousFilePath = null;
+        Integer cachePages = null;
+        Integer shards = null;
+        Long workerHeapMegabytes = null;
+        List<String> historyFilePaths = null;
+
+        try {
+            int i = 0;
+            for (; i < args.length - 1; i++) {
+                switch (args[i]) {
+                    case PIPELINED_OPTION -> pipelined = true;
+                    case DISK_STORE_OPTION -> storeDirectory = Path.of(args[++i]);
+                    case CACHE_PAGES_OPTION -> cachePages = Integer.parseInt(args[++i]);
+                    case DIFF_OPTION -> previousFilePath = args[++i];
+                    case ANALYTICS_OPTION -> analytics = true;
+                    case SHARDS_OPTION -> shards = Integer.parseInt(args[++i]);
+                    case WORKER_HEAP_OPTION -> workerHeapMegabytes = Long.parseLong(args[++i]);
+                    case HISTORY_OPTION -> {
+                        // All remaining arguments are snapshots, the last one being the file path
+                        historyFilePaths = List.of(args).subList(i + 1, args.length);
+                        if (historyFilePaths.stream().anyMatch(path -> path.startsWith("--"))) {
+                            throw new IllegalArgumentException("Options must precede --history");
+                        }
+                        i = args.length - 2;
+                    }
+                    default -> throw new IllegalArgumentException(String.format("Unknown option: %s", args[i]));
+                }
+            }
+            int modes = (pipelined ? 1 : 0) + (storeDirectory != null ? 1 : 0) + (previousFilePath != null ? 1 : 0)
+                    + (analytics ? 1 : 0) + (shards != null ? 1 : 0)
+                    + (historyFilePaths != null ? 1 : 0);
+            if (i != args.length - 1 || modes > 1 || (shards != null && shards < 1)
+                    || (cachePages != null && storeDirectory == null)
+                    || (workerHeapMegabytes != null && (shards == null || workerHeapMegabytes < 1))) {
+                throw new IllegalArgumentException("Expected a single file path and at most one processing mode");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
             System.exit(1);
         }
 
         try {
             Application app = new Application(new EmployeeCsvParser());
-            app.processData(args[0]);
+            String filePath = args[args.length - 1];
+            if (pipelined) {
+                app.processDataPipelined(filePath);
+            } else if (storeDirectory != null) {
+                app.processDataWithDiskStore(filePath, storeDirectory,
+                        cachePages != null ? cachePages : DEFAULT_CACHE_PAGES);
+            } else if (previousFilePath != null) {
+                app.processDiff(previousFilePath, filePath);
+            } else if (analytics) {
+                app.processDataWithAnalytics(filePath);
+            } else if (shards != null && workerHeapMegabytes != null) {
+                app.processDataSharded(filePath, shards, workerHeapMegabytes);
+            } else if (shards != null) {
+                app.processDataSharded(filePath, shards);
+            } else if (historyFilePaths != null) {
+                app.processHistory(historyFilePaths);
+            } else {
+                app.processData(filePath);
+            }
         } catch (Exception e) {
             System.err.printf("Error processing data: %s%n", e.getMessage());
             System.exit(2);
@@ -1,18 +1,42 @@
 package com.bigcompany.core;
 
+import com.bigcompany.management.DiskEmployeeDataAccess;
 import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.management.EmployeeHistory;
 import com.bigcompany.management.InMemoryEmployeeDataAccess;
 import com.bigcompany.model.Employee;
 import com.bigcompany.reader.EmployeeInfoFileReader;
+import com.bigcompany.reporting.HistoryTrends;
+import com.bigcompany.reporting.OrganizationAnalytics;
+import com.bigcompany.reporting.Report;
+import com.bigcompany.reporting.ReportDiff;
+import com.bigcompany.reporting.ReportEntry;
 import com.bigcompany.reporting.ReportGenerator;
+import com.bigcompany.reporting.ReportSection;
+import com.bigcompany.reporting.SalaryQuantiles;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The {@code Application} class processes employee data to generate reports on salary discrepancies and management structures.
  * This class utilizes {@code EmployeeInfoFileReader} to read employee data from a file, then generates a report using {@code ReportGenerator}.
  */
 public class Application {
+    private static final int PIPELINE_STAGE_CAPACITY = 1024; // Elements buffered between two pipeline stages before the producer blocks
+
     private final EmployeeInfoFileReader reader;
 
     public Application(EmployeeInfoFileReader reader) {
@@ -25,9 +49,244 @@ public class Application {
      * @param filePath the path to the file containing employee data
      */
     public void processData(String filePath) {
+        var report = generateReport(filePath);
+        System.out.println(report.format());
+    }
+
+    /**
+     * Processes the employee data like {@link #processData(String)}, and additionally reports managers with an unusual
+     * span of control and prints span-of-control and per-level figures after the report entries.
+     * The figures are collected in the same pass over the employees as the report itself. They are followed by
+     * approximate salary quantiles per level and per department, computed in a second, bottom-up pass.
+     *
+     * @param filePath the path to the file containing employee data
+     */
+    public void processDataWithAnalytics(String filePath) {
         List<Employee> csvContent = reader.loadEmployeesFromFile(filePath);
         EmployeeDataAccess dataAccess = new InMemoryEmployeeDataAccess(csvContent);
-        var report = new ReportGenerator(dataAccess).generateReport();
-        System.out.println(report.format());
+        var report = new ReportGenerator(dataAccess).generateReport(new OrganizationAnalytics());
+        List<ReportSection> sections = new ArrayList<>(report.sections());
+        sections.addAll(SalaryQuantiles.compute(dataAccess).sections());
+        System.out.println(new Report(report.entries(), sections).format());
+    }
+
+    /**
+     * Processes the employee data like {@link #processData(String)}, but runs the stages as a pipeline on virtual threads.
+     * <p>
+     * Parsing feeds index construction through a bounded queue, so the index is built while the file is still being read,
+     * and report entries are streamed to the output while the analysis is still running. Bounded queues between the stages
+     * provide backpressure, so no stage can run arbitrarily far ahead of the next one. The analysis itself can only start
+     * once the index is complete, because a manager's subordinates may appear anywhere in the file.
+     * </p>
+     * The printed output is identical to the output of {@link #processData(String)}.
+     *
+     * @param filePath the path to the file containing employee data
+     */
+    public void processDataPipelined(String filePath) {
+        BoundedChannel<Employee> employees = new BoundedChannel<>(PIPELINE_STAGE_CAPACITY);
+        BoundedChannel<ReportEntry> entries = new BoundedChannel<>(PIPELINE_STAGE_CAPACITY);
+        PrintStream out = System.out;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                try {
+                    reader.readEmployeesFromFile(filePath, employees::send);
+                    employees.close();
+                } catch (RuntimeException | Error e) {
+                    employees.fail(e);
+                }
+            });
+            Future<?> printing = executor.submit(() -> {
+                try {
+                    printEntries(entries, out);
+                } catch (RuntimeException | Error e) {
+                    entries.cancel();
+                    throw e;
+                }
+            });
+
+            try {
+                EmployeeDataAccess dataAccess = new InMemoryEmployeeDataAccess(employees);
+                new ReportGenerator(dataAccess).generateReport(entries::send);
+                entries.close();
+            } catch (RuntimeException | Error e) {
+                employees.cancel();
+                entries.fail(e);
+            }
+            awaitStage(printing);
+        }
+    }
+
+    /**
+     * Processes the employee data like {@link #processData(String)}, but keeps the organization in a disk-backed store
+     * instead of the heap, so organizations larger than the available memory can be analyzed.
+     * <p>
+     * Employees are streamed from the file into a {@link DiskEmployeeDataAccess} written to the given directory, the
+     * report is generated over that store through a page cache of the given size, and report entries are printed as
+     * they are found. The printed output is identical to the output of {@link #processData(String)}.
+     * </p>
+     *
+     * @param filePath       the path to the file containing employee data
+     * @param storeDirectory the directory in which the store is created; existing store files are overwritten
+     * @param cachePages     the number of pages of the store kept in memory
+     */
+    public void processDataWithDiskStore(String filePath, Path storeDirectory, int cachePages) {
+        try (DiskEmployeeDataAccess.Writer writer = DiskEmployeeDataAccess.writer(storeDirectory)) {
+            try {
+                reader.readEmployeesFromFile(filePath, writer::add);
+            } catch (RuntimeException | Error e) {
+                // An index written over part of the input would look like a complete store
+                writer.abort(e);
+                throw e;
+            }
+        }
+        try (DiskEmployeeDataAccess dataAccess = new DiskEmployeeDataAccess(storeDirectory, cachePages)) {
+            EntryPrinter printer = new EntryPrinter(System.out);
+            new ReportGenerator(dataAccess).generateReport(printer);
+            printer.finish();
+        }
+    }
+
+    /**
+     * Processes the employee data like {@link #processData(String)}, but splits the organization by top-level subtree
+     * into shards analyzed by separate worker processes, see {@link ShardCoordinator}.
+     * <p>
+     * The shard files are written to a temporary directory, which is deleted afterwards. Report entries are printed as
+     * they are merged from the workers, and the printed output is identical to the output of {@link #processData(String)}.
+     * </p>
+     *
+     * @param filePath the path to the file containing employee data
+     * @param workers  the number of worker processes
+     */
+    public void processDataSharded(String filePath, int workers) {
+        processDataSharded(filePath, workers, ShardCoordinator.defaultWorkerHeapMegabytes(workers));
+    }
+
+    /**
+     * Processes the employee data like {@link #processDataSharded(String, int)}, with the given maximum heap for every
+     * worker process instead of a share of the heap of the current process.
+     *
+     * @param filePath            the path to the file containing employee data
+     * @param workers             the number of worker processes
+     * @param workerHeapMegabytes the maximum heap of every worker process, in megabytes
+     */
+    public void processDataSharded(String filePath, int workers, long workerHeapMegabytes) {
+        Path workDirectory;
+        try {
+            workDirectory = Files.createTempDirectory("shards");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating directory for shards", e);
+        }
+        try {
+            EntryPrinter printer = new EntryPrinter(System.out);
+            new ShardCoordinator(reader, workers, workerHeapMegabytes).generateReport(filePath, workDirectory, printer);
+            printer.finish();
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Compares the reports of two snapshots of the organization and prints only the issues that are new, resolved
+     * or changed in the newer snapshot, one per line in employee ID order.
+     * <p>
+     * The snapshots are processed one after the other, so only one organization is held in memory at a time. Only the
+     * entries of the older report are kept while the newer one is analyzed; the newer report is compared entry by entry
+     * as it is generated and the changes are printed as soon as they are known.
+     * </p>
+     *
+     * @param previousFilePath the path to the file containing the older employee data
+     * @param currentFilePath  the path to the file containing the newer employee data
+     */
+    public void processDiff(String previousFilePath, String currentFilePath) {
+        List<ReportEntry> previousEntries = generateReport(previousFilePath).entries();
+        PrintStream out = System.out;
+        ReportDiff diff = new ReportDiff(previousEntries.iterator(), change -> out.println(change.formatChange()));
+        new ReportGenerator(new InMemoryEmployeeDataAccess(reader.loadEmployeesFromFile(currentFilePath)))
+                .generateReport(diff);
+        diff.finish();
+    }
+
+    /**
+     * Loads several snapshots of the organization into an {@link EmployeeHistory} and prints how reporting lines
+     * developed from one snapshot to the next, and which managers were paid outside the expected band in more than one.
+     * <p>
+     * Each snapshot is stored as a delta over the previous one, so unchanged employees are held in memory only once.
+     * The trends are computed in a single pass over the history that revisits only what changed, see {@link HistoryTrends}.
+     * </p>
+     *
+     * @param filePaths the paths to the files containing the employee data, oldest first; each path names its period
+     */
+    public void processHistory(List<String> filePaths) {
+        EmployeeHistory history = new EmployeeHistory();
+        filePaths.forEach(filePath -> history.addSnapshot(filePath, reader.loadEmployeesFromFile(filePath)));
+        System.out.println(new Report(List.of(), HistoryTrends.compute(history).sections()).format());
+    }
+
+    private Report generateReport(String filePath) {
+        List<Employee> csvContent = reader.loadEmployeesFromFile(filePath);
+        EmployeeDataAccess dataAccess = new InMemoryEmployeeDataAccess(csvContent);
+        return new ReportGenerator(dataAccess).generateReport();
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(String.format("Error deleting: %s", path), e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error deleting: %s", directory), e);
+        }
+    }
+
+    private static void printEntries(Iterable<ReportEntry> entries, PrintStream out) {
+        EntryPrinter printer = new EntryPrinter(out);
+        entries.forEach(printer);
+        printer.finish();
+    }
+
+    private static void awaitStage(Future<?> stage) {
+        try {
+            stage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for pipeline stage", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Pipeline stage failed", e.getCause());
+        }
+    }
+
+    /**
+     * Prints report entries one per line as they arrive, producing the same output as printing {@code Report.format()}.
+     */
+    private static final class EntryPrinter implements Consumer<ReportEntry> {
+        private final PrintStream out;
+        private boolean empty = true;
+
+        EntryPrinter(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(ReportEntry entry) {
+            out.println(entry.formatEntry());
+            empty = false;
+        }
+
+        void finish() {
+            if (empty) {
+                out.println();
+            }
+        }
     }
 }
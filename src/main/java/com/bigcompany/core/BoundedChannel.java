@@ -0,0 +1,136 @@
+package com.bigcompany.core;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single-producer, single-consumer hand-off between two pipeline stages backed by a bounded queue.
+ * <p>
+ * The producer blocks in {@link #send(Object)} while the queue is full, which provides backpressure so a fast stage
+ * can never run arbitrarily far ahead of a slow one. The consumer drains the channel by iterating over it; iteration
+ * ends once the producer calls {@link #close()}, or rethrows the producer's failure if it called {@link #fail(Throwable)}.
+ * Either side may {@link #cancel()} the channel, after which blocked or future calls on the other side fail fast
+ * instead of waiting forever.
+ * </p>
+ *
+ * @param <T> the type of the elements passed through the channel
+ */
+class BoundedChannel<T> implements Iterable<T> {
+    private static final Object END_OF_STREAM = new Object();
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+
+    BoundedChannel(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Sends an element to the consumer, blocking while the channel is full.
+     *
+     * @param element the element to send; should not be null
+     * @throws IllegalStateException if the channel has been cancelled by the consumer
+     */
+    void send(T element) {
+        enqueue(element);
+    }
+
+    /**
+     * Signals that no more elements will be sent.
+     */
+    void close() {
+        enqueue(END_OF_STREAM);
+    }
+
+    /**
+     * Signals that the producer failed; the consumer rethrows the failure once it reaches the end of the channel.
+     *
+     * @param cause the failure of the producing stage
+     */
+    void fail(Throwable cause) {
+        failure = cause;
+        try {
+            enqueue(END_OF_STREAM);
+        } catch (IllegalStateException e) {
+            // The consumer is gone, so there is nobody left to report the failure to.
+        }
+    }
+
+    /**
+     * Abandons the channel, releasing a producer blocked in {@link #send(Object)} and a consumer waiting for elements.
+     */
+    void cancel() {
+        cancelled = true;
+        queue.clear();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Object next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = dequeue();
+                }
+                if (next == END_OF_STREAM) {
+                    if (failure != null) {
+                        throw failure instanceof RuntimeException runtimeException
+                                ? runtimeException
+                                : new IllegalStateException("Pipeline stage failed", failure);
+                    }
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T element = (T) next;
+                next = null;
+                return element;
+            }
+        };
+    }
+
+    private void enqueue(Object element) {
+        try {
+            while (!queue.offer(element, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkNotCancelled();
+            }
+            checkNotCancelled();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending to pipeline stage", e);
+        }
+    }
+
+    private Object dequeue() {
+        try {
+            Object element;
+            while ((element = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkNotCancelled();
+            }
+            return element;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while receiving from pipeline stage", e);
+        }
+    }
+
+    private void checkNotCancelled() {
+        if (cancelled) {
+            throw new IllegalStateException("Pipeline stage was cancelled");
+        }
+    }
+}
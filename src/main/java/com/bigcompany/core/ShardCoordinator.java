@@ -0,0 +1,304 @@
+package com.bigcompany.core;
+
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reader.EmployeeInfoFileReader;
+import com.bigcompany.reporting.ReportEntry;
+import com.bigcompany.reporting.ReportGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the report of an organization with several local worker processes, each analyzing a shard of it in its
+ * own JVM, so that neither the heap nor the CPU of a single JVM limits the size of the organization.
+ * <p>
+ * The coordinator reads the input file twice. The first pass builds a {@link ShardPlan}, which distributes the
+ * top-level subtrees over the shards; the second writes one CSV file per shard, adding the roots above its subtrees
+ * as ghost rows so that the workers compute reporting-line depths across the shard boundary correctly. Each
+ * {@link ShardWorker} process then loads its shard, runs the {@link ReportGenerator} and streams its entries back
+ * through standard output, where a virtual thread per worker reads them. The roots themselves are checked by the
+ * coordinator, which only needs them and their direct subordinates. Finally, the sorted entry streams of all workers
+ * and of the roots are merged by employee ID, so the report is identical to the one of a single JVM and is handed to
+ * the sink while the workers are still running.
+ * </p>
+ * Worker processes are started with the same Java runtime and class path as the current process; their errors are
+ * forwarded to the standard error of the current process. Each worker gets an explicit maximum heap, by default the
+ * maximum heap of the current process divided by the number of workers. Otherwise every worker would get the default
+ * heap of the JVM, a quarter of the physical memory, and a few workers together could exceed the memory of the host.
+ */
+public class ShardCoordinator {
+    private static final int WORKER_OUTPUT_CAPACITY = 1024; // Entries buffered per worker before its reader blocks
+    private static final String SHARD_FILE_HEADER = "Id,firstName,lastName,salary,managerId";
+    private static final long MIN_WORKER_HEAP_MEGABYTES = 64; // Lower bound of the default heap of a worker
+
+    private final EmployeeInfoFileReader reader;
+    private final int workers;
+    private final long workerHeapMegabytes;
+
+    /**
+     * Creates a coordinator whose workers share the maximum heap of the current process.
+     *
+     * @param reader  the reader of the input file
+     * @param workers the number of worker processes, and thus of shards
+     */
+    public ShardCoordinator(EmployeeInfoFileReader reader, int workers) {
+        this(reader, workers, defaultWorkerHeapMegabytes(workers));
+    }
+
+    /**
+     * @param reader              the reader of the input file
+     * @param workers             the number of worker processes, and thus of shards
+     * @param workerHeapMegabytes the maximum heap of every worker process, in megabytes
+     */
+    public ShardCoordinator(EmployeeInfoFileReader reader, int workers, long workerHeapMegabytes) {
+        if (workers < 1) {
+            throw new IllegalArgumentException(String.format("Number of workers must be positive, but was %d", workers));
+        }
+        if (workerHeapMegabytes < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Worker heap must be positive, but was %d megabytes", workerHeapMegabytes));
+        }
+        this.reader = Objects.requireNonNull(reader);
+        this.workers = workers;
+        this.workerHeapMegabytes = workerHeapMegabytes;
+    }
+
+    /**
+     * Returns the maximum heap of the current process divided by the given number of workers, but at least
+     * {@value #MIN_WORKER_HEAP_MEGABYTES} megabytes.
+     *
+     * @param workers the number of worker processes
+     * @return the default maximum heap of a worker process, in megabytes
+     */
+    public static long defaultWorkerHeapMegabytes(int workers) {
+        long megabytes = Runtime.getRuntime().maxMemory() / (1024 * 1024) / Math.max(1, workers);
+        return Math.max(MIN_WORKER_HEAP_MEGABYTES, megabytes);
+    }
+
+    /**
+     * Generates the report of the employees in the given file and hands its entries to the sink in employee ID order.
+     *
+     * @param filePath      the path to the file containing employee data
+     * @param workDirectory the directory in which the shard files are written
+     * @param sink          the consumer receiving report entries in employee ID order
+     * @throws IllegalStateException if a worker process fails
+     */
+    public void generateReport(String filePath, Path workDirectory, Consumer<ReportEntry> sink) {
+        ShardPlan plan = ShardPlan.build(reader, filePath, workers);
+        List<Path> shardFiles = new ArrayList<>();
+        Map<Integer, Employee> rootsAndTopLevelHeads = writeShards(filePath, plan, workDirectory, shardFiles);
+
+        List<ReportEntry> rootEntries = new ArrayList<>();
+        new ReportGenerator(new InMemoryEmployeeDataAccess(rootsAndTopLevelHeads.values())).generateReport(entry -> {
+            if (plan.shardOf(entry.employee().id()) == ShardPlan.ROOT) {
+                rootEntries.add(entry);
+            }
+        });
+
+        List<Process> processes = new ArrayList<>();
+        List<BoundedChannel<ReportEntry>> workerEntries = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Iterator<ReportEntry>> streams = new ArrayList<>();
+            streams.add(rootEntries.iterator());
+            try {
+                for (int shard = 0; shard < plan.shardCount(); shard++) {
+                    if (plan.ghostRootIds(shard).isEmpty()) {
+                        continue; // No subtree was assigned to this shard
+                    }
+                    Process process = startWorker(shardFiles.get(shard), plan.ghostRootIds(shard).stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")));
+                    processes.add(process);
+                    BoundedChannel<ReportEntry> entries = new BoundedChannel<>(WORKER_OUTPUT_CAPACITY);
+                    workerEntries.add(entries);
+                    int workerShard = shard;
+                    executor.submit(() -> readWorkerOutput(process, workerShard, entries));
+                    streams.add(entries.iterator());
+                }
+                merge(streams, sink);
+            } catch (RuntimeException | Error e) {
+                // Release the readers of the other workers before the executor waits for them
+                workerEntries.forEach(BoundedChannel::cancel);
+                processes.forEach(Process::destroy);
+                throw e;
+            }
+        }
+    }
+
+    private Map<Integer, Employee> writeShards(String filePath, ShardPlan plan, Path workDirectory, List<Path> shardFiles) {
+        Map<Integer, Employee> rootsAndTopLevelHeads = new HashMap<>();
+        List<BufferedWriter> writers = new ArrayList<>();
+        try {
+            Files.createDirectories(workDirectory);
+            for (int shard = 0; shard < plan.shardCount(); shard++) {
+                Path shardFile = workDirectory.resolve(String.format("shard-%d.csv", shard));
+                shardFiles.add(shardFile);
+                BufferedWriter writer = Files.newBufferedWriter(shardFile, StandardCharsets.UTF_8);
+                writers.add(writer);
+                writer.write(SHARD_FILE_HEADER);
+                writer.newLine();
+            }
+
+            reader.readEmployeesFromFile(filePath, employee -> {
+                int shard = plan.shardOf(employee.id());
+                if (shard == ShardPlan.ROOT) {
+                    rootsAndTopLevelHeads.put(employee.id(), employee);
+                } else {
+                    if (plan.reportsToRoot(employee.id())) {
+                        rootsAndTopLevelHeads.put(employee.id(), employee);
+                    }
+                    writeRow(writers.get(shard), employee);
+                }
+            });
+
+            for (int shard = 0; shard < plan.shardCount(); shard++) {
+                for (int rootId : plan.ghostRootIds(shard)) {
+                    writeRow(writers.get(shard), rootsAndTopLevelHeads.get(rootId));
+                }
+            }
+        } catch (IOException e) {
+            UncheckedIOException failure =
+                    new UncheckedIOException(String.format("Error writing shards to: %s", workDirectory), e);
+            closeAll(writers, workDirectory, failure);
+            throw failure;
+        } catch (RuntimeException | Error e) {
+            closeAll(writers, workDirectory, e);
+            throw e;
+        }
+        closeAll(writers, workDirectory, null);
+        return rootsAndTopLevelHeads;
+    }
+
+    /**
+     * Closes every writer, even if some fail to close. Failures are added as suppressed exceptions to the failure that
+     * is already being thrown, if any; otherwise the first one is thrown, with the others suppressed.
+     */
+    static void closeAll(List<BufferedWriter> writers, Path workDirectory, Throwable failure) {
+        UncheckedIOException closeFailure = null;
+        for (BufferedWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                } else if (closeFailure == null) {
+                    closeFailure = new UncheckedIOException(String.format("Error writing shards to: %s", workDirectory), e);
+                } else {
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (closeFailure != null) {
+            throw closeFailure;
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, Employee employee) {
+        try {
+            writer.write(Integer.toString(employee.id()));
+            writer.write(',');
+            writer.write(employee.firstName());
+            writer.write(',');
+            writer.write(employee.lastName());
+            writer.write(',');
+            writer.write(employee.salary().toString());
+            writer.write(',');
+            if (employee.managerId().isPresent()) {
+                writer.write(Integer.toString(employee.managerId().get()));
+            }
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error writing employee: %s", employee), e);
+        }
+    }
+
+    private Process startWorker(Path shardFile, String ghostIds) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + workerHeapMegabytes + "m");
+        // Module and preview settings of the current JVM apply to the classes the workers load as well
+        List<String> jvmArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        for (int i = 0; i < jvmArguments.size(); i++) {
+            String argument = jvmArguments.get(i);
+            if (argument.equals("--enable-preview") || argument.startsWith("--add-modules")) {
+                command.add(argument);
+                if (argument.equals("--add-modules") && i + 1 < jvmArguments.size()) {
+                    command.add(jvmArguments.get(++i));
+                }
+            }
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName(),
+                shardFile.toString(), ghostIds));
+        try {
+            return new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error starting worker for shard: %s", shardFile), e);
+        }
+    }
+
+    private static void readWorkerOutput(Process process, int shard, BoundedChannel<ReportEntry> entries) {
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                entries.send(ShardWorker.decode(line));
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException(String.format("Worker for shard %d failed with exit code %d", shard, exitCode));
+            }
+            entries.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entries.fail(new IllegalStateException(String.format("Interrupted while waiting for shard %d", shard), e));
+        } catch (IOException e) {
+            entries.fail(new UncheckedIOException(String.format("Error reading output of shard %d", shard), e));
+        } catch (RuntimeException | Error e) {
+            entries.fail(e);
+        }
+    }
+
+    /**
+     * Merges entry streams sorted by employee ID into one sorted stream. Each employee belongs to a single stream,
+     * so the entries of one employee keep their relative order.
+     */
+    private static void merge(List<Iterator<ReportEntry>> streams, Consumer<ReportEntry> sink) {
+        record Head(ReportEntry entry, Iterator<ReportEntry> stream) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(head -> head.entry().employee().id()));
+        for (Iterator<ReportEntry> stream : streams) {
+            if (stream.hasNext()) {
+                heads.add(new Head(stream.next(), stream));
+            }
+        }
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            sink.accept(head.entry());
+            if (head.stream().hasNext()) {
+                heads.add(new Head(head.stream().next(), head.stream()));
+            }
+        }
+    }
+}
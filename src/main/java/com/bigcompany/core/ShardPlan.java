@@ -0,0 +1,182 @@
+package com.bigcompany.core;
+
+import com.bigcompany.management.HierarchyIndex;
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.reader.EmployeeInfoFileReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Assigns the employees of a file to shards by top-level subtree, so that every reporting line below the top level
+ * lies entirely within one shard.
+ * <p>
+ * The employees without a manager are the <i>roots</i> of the organization and stay with the coordinator. Each of their
+ * direct subordinates heads a top-level subtree, and whole subtrees are distributed over the shards, largest first,
+ * to the shard with the fewest employees so far. A root with subordinates is copied into every shard containing one of
+ * its subtrees as a <i>ghost</i>, so that the workers see the full reporting lines and compute correct depths.
+ * </p>
+ * The plan is built from one pass over the file and keeps a {@link HierarchyIndex} and the shard of every employee,
+ * a few {@code int}s per employee.
+ */
+final class ShardPlan {
+    static final int ROOT = HierarchyIndex.NO_MANAGER;
+
+    private final HierarchyIndex index;
+    private final int[] shards;
+    private final BitSet reportsToRoot;
+    private final List<Set<Integer>> ghostRootIds;
+
+    private ShardPlan(HierarchyIndex index, int[] shards, BitSet reportsToRoot, List<Set<Integer>> ghostRootIds) {
+        this.index = index;
+        this.shards = shards;
+        this.reportsToRoot = reportsToRoot;
+        this.ghostRootIds = ghostRootIds;
+    }
+
+    /**
+     * Reads the employee file once and distributes its top-level subtrees over the given number of shards.
+     * If several employees share an ID, the last one in the file wins, as in the in-memory data access.
+     *
+     * @throws EmployeeNotFoundException if an employee's manager is not in the file
+     * @throws IllegalArgumentException  if the managerial hierarchy contains a cycle
+     */
+    static ShardPlan build(EmployeeInfoFileReader reader, String filePath, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException(String.format("Number of shards must be positive, but was %d", shardCount));
+        }
+        HierarchyIndex.Builder builder = new HierarchyIndex.Builder();
+        reader.readEmployeesFromFile(filePath, employee -> builder.add(employee.id(), employee.managerId()));
+        HierarchyIndex index = builder.build();
+
+        int size = index.size();
+        for (int position = 0; position < size; position++) {
+            if (index.parent(position) == HierarchyIndex.UNKNOWN_MANAGER) {
+                throw new EmployeeNotFoundException(
+                        String.format("Employee with ID %d not found.", index.managerId(position)));
+            }
+        }
+
+        int[] heads = findTopLevelHeads(index);
+        BitSet reportsToRoot = new BitSet(size);
+        long[] subtreeSizes = new long[size];
+        for (int position = 0; position < size; position++) {
+            if (heads[position] != ROOT) {
+                subtreeSizes[heads[position]]++;
+            }
+            if (index.parent(position) != ROOT && index.parent(index.parent(position)) == ROOT) {
+                reportsToRoot.set(position);
+            }
+        }
+
+        // Largest subtrees first, each to the shard with the fewest employees so far
+        int[] shardOfHead = new int[size];
+        List<Integer> headPositions = new ArrayList<>();
+        reportsToRoot.stream().forEach(headPositions::add);
+        headPositions.sort(Comparator.comparingLong((Integer head) -> subtreeSizes[head]).reversed());
+        PriorityQueue<long[]> loads = new PriorityQueue<>(Comparator.<long[]>comparingLong(load -> load[0])
+                .thenComparingLong(load -> load[1]));
+        for (int shard = 0; shard < shardCount; shard++) {
+            loads.add(new long[]{0, shard});
+        }
+        List<Set<Integer>> ghostRootIds = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            ghostRootIds.add(new TreeSet<>());
+        }
+        for (int head : headPositions) {
+            long[] load = loads.poll();
+            shardOfHead[head] = (int) load[1];
+            ghostRootIds.get((int) load[1]).add(index.id(index.parent(head)));
+            load[0] += subtreeSizes[head];
+            loads.add(load);
+        }
+
+        int[] shards = new int[size];
+        for (int position = 0; position < size; position++) {
+            shards[position] = heads[position] == ROOT ? ROOT : shardOfHead[heads[position]];
+        }
+        return new ShardPlan(index, shards, reportsToRoot, ghostRootIds);
+    }
+
+    /**
+     * Finds the head of the top-level subtree of every employee, or {@link #ROOT} for the roots themselves.
+     * Reporting lines are followed iteratively and every result is memoized, so each employee is visited once.
+     */
+    private static int[] findTopLevelHeads(HierarchyIndex index) {
+        int size = index.size();
+        int[] heads = new int[size];
+        byte[] states = new byte[size]; // 0 = not visited, 1 = on the current reporting line, 2 = resolved
+        int[] path = new int[16];
+        for (int start = 0; start < size; start++) {
+            int length = 0;
+            int position = start;
+            while (states[position] != 2) {
+                if (states[position] == 1) {
+                    throw new IllegalArgumentException(String.format(
+                            "Circular relationships in the managerial hierarchy. Employee ID: %d", index.id(start)));
+                }
+                if (index.parent(position) == ROOT) {
+                    heads[position] = ROOT;
+                    states[position] = 2;
+                    break;
+                }
+                if (index.parent(index.parent(position)) == ROOT) {
+                    heads[position] = position;
+                    states[position] = 2;
+                    break;
+                }
+                states[position] = 1;
+                if (length == path.length) {
+                    path = Arrays.copyOf(path, length * 2);
+                }
+                path[length++] = position;
+                position = index.parent(position);
+            }
+            int head = heads[position];
+            for (int i = 0; i < length; i++) {
+                heads[path[i]] = head;
+                states[path[i]] = 2;
+            }
+        }
+        return heads;
+    }
+
+    /**
+     * @return the shard of the employee with the given ID, or {@link #ROOT} for employees without a manager
+     */
+    int shardOf(int id) {
+        return shards[position(id)];
+    }
+
+    /**
+     * @return whether the manager of the employee with the given ID is a root, that is, whether they head a top-level subtree
+     */
+    boolean reportsToRoot(int id) {
+        return reportsToRoot.get(position(id));
+    }
+
+    /**
+     * @return the IDs of the roots that must be copied into the given shard, in ascending order
+     */
+    Set<Integer> ghostRootIds(int shard) {
+        return ghostRootIds.get(shard);
+    }
+
+    int shardCount() {
+        return ghostRootIds.size();
+    }
+
+    private int position(int id) {
+        int position = index.positionOf(id);
+        if (position < 0) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+        }
+        return position;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bigcompany.core;
+
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reader.EmployeeCsvParser;
+import com.bigcompany.reporting.ReportEntry;
+import com.bigcompany.reporting.ReportGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The entry point of a worker process of {@link ShardCoordinator}.
+ * <p>
+ * A worker loads one shard file written by the coordinator into its own {@link InMemoryEmployeeDataAccess}, runs the
+ * {@link ReportGenerator} over it and writes the report entries to standard output, one per line in employee ID order.
+ * Entries of ghost employees, which are only part of the shard to complete its reporting lines, are left out.
+ * Errors are written to standard error and make the process exit with a non-zero status.
+ * </p>
+ * Entries are written as tab-separated fields in which backslashes, tabs and line breaks are escaped, so that
+ * {@link #decode(String)} restores them exactly.
+ */
+public class ShardWorker {
+    private static final String USAGE = "Usage: java ShardWorker <shard file path> <comma-separated ghost IDs>";
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * @param args the path of the shard file and the comma-separated IDs of its ghost employees, which may be empty
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        try {
+            Set<Integer> ghostIds = args[1].isEmpty()
+                    ? Set.of()
+                    : Arrays.stream(args[1].split(",")).map(Integer::valueOf).collect(Collectors.toSet());
+            List<Employee> employees = new EmployeeCsvParser().loadEmployeesFromFile(args[0]);
+            EmployeeDataAccess dataAccess = new InMemoryEmployeeDataAccess(employees);
+
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            new ReportGenerator(dataAccess).generateReport(entry -> {
+                if (!ghostIds.contains(entry.employee().id())) {
+                    write(out, encode(entry));
+                }
+            });
+            out.flush();
+        } catch (Exception e) {
+            System.err.printf("Error processing shard %s: %s%n", args[0], e);
+            System.exit(2);
+        }
+    }
+
+    private static void write(Writer out, String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing report entry", e);
+        }
+    }
+
+    /**
+     * Encodes a report entry as a single line without the line terminator.
+     */
+    static String encode(ReportEntry entry) {
+        Employee employee = entry.employee();
+        StringBuilder line = new StringBuilder();
+        line.append(employee.id()).append(SEPARATOR);
+        appendEscaped(line, employee.firstName()).append(SEPARATOR);
+        appendEscaped(line, employee.lastName()).append(SEPARATOR);
+        line.append(employee.salary()).append(SEPARATOR);
+        employee.managerId().ifPresent(line::append);
+        line.append(SEPARATOR);
+        appendEscaped(line, entry.message()).append(SEPARATOR);
+        entry.discrepancy().ifPresent(line::append);
+        return line.toString();
+    }
+
+    /**
+     * Decodes a line written by {@link #encode(ReportEntry)}.
+     *
+     * @throws IllegalArgumentException if the line is not a valid encoded entry
+     */
+    static ReportEntry decode(String line) {
+        List<String> fields = new ArrayList<>(7);
+        int start = 0;
+        while (true) {
+            int end = line.indexOf(SEPARATOR, start);
+            String field = line.substring(start, end < 0 ? line.length() : end);
+            fields.add(field.indexOf('\\') < 0 ? field : unescape(field));
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (fields.size() != 7) {
+            throw new IllegalArgumentException(String.format("Malformed report entry from shard worker: %s", line));
+        }
+
+        try {
+            Employee employee = new Employee(Integer.valueOf(fields.get(0)), fields.get(1), fields.get(2),
+                    new BigDecimal(fields.get(3)),
+                    fields.get(4).isEmpty() ? Optional.empty() : Optional.of(Integer.valueOf(fields.get(4))));
+            Optional<BigDecimal> discrepancy = fields.get(6).isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(new BigDecimal(fields.get(6)));
+            return new ReportEntry(employee, fields.get(5), discrepancy);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Malformed report entry from shard worker: %s", line), e);
+        }
+    }
+
+    private static String unescape(String field) {
+        StringBuilder unescaped = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char escaped = field.charAt(++i);
+                unescaped.append(switch (escaped) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> escaped;
+                });
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static StringBuilder appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,159 @@
+package com.bigcompany.management;
+
+import com.bigcompany.model.Employee;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+
+/**
+ * Implements {@code EmployeeDataAccess} for organizations that are queried by many threads while being updated.
+ * <p>
+ * The data is kept in immutable, versioned snapshots. Readers only dereference the current snapshot and never block;
+ * writers build the next snapshot off to the side under a lock and publish it atomically with a single volatile write,
+ * so a reader observes either all or none of an update.
+ * </p>
+ * <p>
+ * Each call to one of the {@link EmployeeDataAccess} methods of this class reads the snapshot current at the time of
+ * the call, so consecutive calls may observe different versions. Code that needs a consistent view across several
+ * calls, such as {@link com.bigcompany.reporting.ReportGenerator}, should work on {@link #snapshot()} instead.
+ * </p>
+ * <p>
+ * Assumptions:
+ * <ul>
+ *     <li>Reads vastly outnumber writes. Every update copies and re-indexes the whole organization, so related changes
+ *     should be applied together through {@link #update(Collection, Collection)}.</li>
+ * </ul>
+ * </p>
+ */
+public class ConcurrentEmployeeDataAccess implements EmployeeDataAccess {
+    private final Object writeLock = new Object();
+    private volatile Snapshot current;
+
+    /**
+     * Constructs a ConcurrentEmployeeDataAccess instance whose first snapshot contains the given employees.
+     *
+     * @param initialEmployees an iterable collection of initial employees to be loaded into the data access.
+     */
+    public ConcurrentEmployeeDataAccess(Iterable<Employee> initialEmployees) {
+        Objects.requireNonNull(initialEmployees);
+        Map<Integer, Employee> employeesById = new HashMap<>();
+        initialEmployees.forEach(employee -> employeesById.put(employee.id(), employee));
+        this.current = new Snapshot(0, employeesById);
+    }
+
+    /**
+     * Returns an immutable view of the organization as of now, unaffected by later updates.
+     *
+     * @return the current snapshot
+     */
+    public EmployeeDataAccess snapshot() {
+        return current.dataAccess();
+    }
+
+    /**
+     * Returns the version of the current snapshot. The version starts at zero and is incremented by every update.
+     *
+     * @return the current version
+     */
+    public long version() {
+        return current.version();
+    }
+
+    /**
+     * Adds an employee, or replaces the employee with the same ID, and publishes the result as a new snapshot.
+     *
+     * @param employee the employee to add or replace
+     */
+    public void put(Employee employee) {
+        update(List.of(employee), List.of());
+    }
+
+    /**
+     * Removes the employee with the given ID, if present, and publishes the result as a new snapshot.
+     * Subordinates of the removed employee are kept and still refer to the removed ID as their manager.
+     *
+     * @param id the ID of the employee to remove
+     */
+    public void remove(int id) {
+        update(List.of(), List.of(id));
+    }
+
+    /**
+     * Applies a batch of changes and publishes them atomically as a single new snapshot.
+     * Removals are applied after additions and replacements.
+     *
+     * @param employees  the employees to add, or to replace the employees with the same IDs
+     * @param removedIds the IDs of the employees to remove
+     */
+    public void update(Collection<Employee> employees, Collection<Integer> removedIds) {
+        Objects.requireNonNull(employees);
+        Objects.requireNonNull(removedIds);
+        synchronized (writeLock) {
+            Snapshot previous = current;
+            Map<Integer, Employee> employeesById = new HashMap<>(previous.employeesById());
+            employees.forEach(employee -> employeesById.put(employee.id(), employee));
+            removedIds.forEach(employeesById::remove);
+            current = new Snapshot(previous.version() + 1, employeesById);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Retrieves an {@link Employee} from the current snapshot.
+     *
+     * @throws com.bigcompany.management.exception.EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public Employee getById(int id) {
+        return current.dataAccess().getById(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Employee> getAllEmployees() {
+        return current.dataAccess().getAllEmployees();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Employee> getManagers(Employee employee) {
+        return current.dataAccess().getManagers(employee);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Employee> getSubordinates(Employee employee) {
+        return current.dataAccess().getSubordinates(employee);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The spliterator traverses the snapshot current at the time of the call.
+     */
+    @Override
+    public Spliterator<Employee> idOrderedSpliterator() {
+        return current.dataAccess().idOrderedSpliterator();
+    }
+
+    /**
+     * An immutable version of the organization. The employee map is never modified after construction
+     * and is only used by writers as the base of the next snapshot.
+     */
+    private record Snapshot(long version, Map<Integer, Employee> employeesById, EmployeeDataAccess dataAccess) {
+
+        Snapshot(long version, Map<Integer, Employee> employeesById) {
+            this(version, employeesById, new InMemoryEmployeeDataAccess(employeesById.values()));
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.bigcompany.management;
+
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Implements {@code EmployeeDataAccess} on top of a persistent, page-based store, for organizations that do not fit in
+ * the Java heap.
+ * <p>
+ * A store is a directory written once by a {@link Writer} and consisting of three files:
+ * <ul>
+ *     <li><b>{@value #RECORDS_FILE}</b> - the length-prefixed employee records in the order they were written.</li>
+ *     <li><b>{@value #INDEX_FILE}</b> - fixed-size entries sorted by employee ID, each holding the ID, the offset of the
+ *     record, and the range of the employee's direct subordinates in the children file.</li>
+ *     <li><b>{@value #CHILDREN_FILE}</b> - the index positions of all direct subordinates, grouped by manager.</li>
+ * </ul>
+ * All reads go through an LRU {@link PageCache} of configurable size, so the memory used by this class is bounded by the
+ * cache size no matter how large the organization is. Employees are looked up by binary search over the index, and
+ * {@link #idOrderedSpliterator()} and {@link #streamIdsInOrder()} scan the index sequentially.
+ * </p>
+ * <p>
+ * Assumptions:
+ * <ul>
+ *     <li>If several employees share an ID, the last one written wins, as in {@link InMemoryEmployeeDataAccess}.</li>
+ *     <li>{@link #getAllEmployees()} materializes the whole organization on the heap and is only meant for small stores.</li>
+ * </ul>
+ * </p>
+ */
+public class DiskEmployeeDataAccess implements EmployeeDataAccess, AutoCloseable {
+    static final String RECORDS_FILE = "records.dat";
+    static final String INDEX_FILE = "index.dat";
+    static final String CHILDREN_FILE = "children.dat";
+
+    // Index entry: id (int), record offset (long), first child (int), number of children (int)
+    private static final int INDEX_ENTRY_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int RECORD_OFFSET_POSITION = Integer.BYTES;
+    private static final int FIRST_CHILD_POSITION = RECORD_OFFSET_POSITION + Long.BYTES;
+    private static final int CHILD_COUNT_POSITION = FIRST_CHILD_POSITION + Integer.BYTES;
+
+    private final PageCache cache;
+    private final PagedFile records;
+    private final PagedFile index;
+    private final PagedFile children;
+    private final int size;
+
+    /**
+     * Opens a store previously written by a {@link Writer}.
+     *
+     * @param directory  the directory containing the store
+     * @param cachePages the maximum number of {@value PageCache#PAGE_SIZE}-byte pages kept in memory
+     * @throws UncheckedIOException if the store cannot be opened
+     */
+    public DiskEmployeeDataAccess(Path directory, int cachePages) {
+        Objects.requireNonNull(directory);
+        this.cache = new PageCache(cachePages);
+        List<PagedFile> files = new ArrayList<>();
+        try {
+            for (String file : List.of(RECORDS_FILE, INDEX_FILE, CHILDREN_FILE)) {
+                files.add(new PagedFile(directory.resolve(file), cache));
+            }
+        } catch (RuntimeException e) {
+            // Do not leak the files opened before the one that failed, e.g. after an aborted write deleted the index
+            closeAll(files, e);
+            throw e;
+        }
+        this.records = files.get(0);
+        this.index = files.get(1);
+        this.children = files.get(2);
+        this.size = (int) (index.size() / INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Creates a writer for a new store in the given directory. The index and adjacency files of an existing store in
+     * the directory are deleted right away and its records file is overwritten, so the directory cannot be opened as
+     * a store again until the writer is closed.
+     *
+     * @param directory the directory to write the store to; created if it does not exist
+     * @return a writer that must be closed to complete the store
+     * @throws UncheckedIOException if the store files cannot be created
+     */
+    public static Writer writer(Path directory) {
+        return new Writer(directory);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This override throws a {@link EmployeeNotFoundException} if the employee is not found.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public Employee getById(int id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+        }
+        return readEmployee(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The employees are materialized on the heap, so this should be avoided for large stores in favour of
+     * {@link #idOrderedSpliterator()}.
+     */
+    @Override
+    public Set<Employee> getAllEmployees() {
+        Set<Employee> employees = HashSet.newHashSet(size);
+        idOrderedSpliterator().forEachRemaining(employees::add);
+        return employees;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Employee> getSubordinates(Employee employee) {
+        int position = positionOf(employee.id());
+        if (position < 0) {
+            return Set.of();
+        }
+        long entry = (long) position * INDEX_ENTRY_SIZE;
+        int firstChild = index.readInt(entry + FIRST_CHILD_POSITION);
+        int childCount = index.readInt(entry + CHILD_COUNT_POSITION);
+        Set<Employee> subordinates = HashSet.newHashSet(childCount);
+        for (int child = firstChild; child < firstChild + childCount; child++) {
+            subordinates.add(readEmployee(children.readInt((long) child * Integer.BYTES)));
+        }
+        return subordinates;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The IDs are read from the index without reading any record.
+     */
+    @Override
+    public IntStream streamIdsInOrder() {
+        return IntStream.range(0, size).map(position -> index.readInt((long) position * INDEX_ENTRY_SIZE));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The count is read from the index without reading any record.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public int directReportCount(int id) {
+        int position = positionOf(id);
+        if (position < 0) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+        }
+        return index.readInt((long) position * INDEX_ENTRY_SIZE + CHILD_COUNT_POSITION);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The spliterator scans the index sequentially and splits by index range.
+     */
+    @Override
+    public Spliterator<Employee> idOrderedSpliterator() {
+        return new IndexRangeSpliterator(0, size);
+    }
+
+    /**
+     * @return the number of page reads served from the cache so far
+     */
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * @return the number of page reads that had to go to disk so far
+     */
+    public long cacheMisses() {
+        return cache.misses();
+    }
+
+    /**
+     * Closes the store files. All files are closed even if closing one fails; the first failure is thrown with the
+     * others suppressed.
+     *
+     * @throws UncheckedIOException if a file cannot be closed
+     */
+    @Override
+    public void close() {
+        RuntimeException failure = closeAll(List.of(records, index, children), null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Closes all given files, even if closing one fails.
+     *
+     * @param failure the failure to add the failures to close as suppressed exceptions, or {@code null}
+     * @return the given failure, or the first failure to close with the others suppressed, or {@code null}
+     */
+    private static RuntimeException closeAll(List<PagedFile> files, RuntimeException failure) {
+        for (PagedFile file : files) {
+            try {
+                file.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private int positionOf(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = index.readInt((long) middle * INDEX_ENTRY_SIZE);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private Employee readEmployee(int position) {
+        long recordOffset = index.readLong((long) position * INDEX_ENTRY_SIZE + RECORD_OFFSET_POSITION);
+        byte[] record = new byte[records.readInt(recordOffset)];
+        records.read(recordOffset + Integer.BYTES, record);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+            int id = input.readInt();
+            boolean hasManager = input.readBoolean();
+            int managerId = input.readInt();
+            int scale = input.readInt();
+            byte[] unscaledValue = new byte[input.readUnsignedShort()];
+            input.readFully(unscaledValue);
+            String firstName = input.readUTF();
+            String lastName = input.readUTF();
+            return new Employee(id, firstName, lastName, new BigDecimal(new BigInteger(unscaledValue), scale),
+                    hasManager ? Optional.of(managerId) : Optional.empty());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Corrupted employee record at offset %d", recordOffset), e);
+        }
+    }
+
+    /**
+     * Traverses a range of index positions, reading employees one at a time; splits the range in halves.
+     */
+    private final class IndexRangeSpliterator implements Spliterator<Employee> {
+        private int from;
+        private final int to;
+
+        IndexRangeSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Employee> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(readEmployee(from++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Employee> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            Spliterator<Employee> prefix = new IndexRangeSpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Writes a new store. Employees are appended to the records file as they are added; the sorted index and the
+     * adjacency file are built when the writer is closed. Until then the directory holds no index, so an earlier store
+     * in it is never opened with its index pointing into the records being overwritten.
+     * <p>
+     * The writer keeps a few primitive values per employee on the heap (about 24 bytes while adding, and about twice
+     * that while building the index) instead of the employees themselves, so organizations far larger than the heap
+     * can be written from a streaming source such as
+     * {@link com.bigcompany.reader.EmployeeInfoFileReader#readEmployeesFromFile}.
+     * </p>
+     */
+    public static final class Writer implements AutoCloseable {
+        private final Path directory;
+        private final DataOutputStream records;
+        private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+        private final HierarchyIndex.Builder hierarchy = new HierarchyIndex.Builder();
+        private long recordOffset;
+        private long[] recordOffsets = new long[1024];
+        private boolean aborted;
+
+        private Writer(Path directory) {
+            Objects.requireNonNull(directory);
+            this.directory = directory;
+            try {
+                Files.createDirectories(directory);
+                Files.deleteIfExists(directory.resolve(INDEX_FILE));
+                Files.deleteIfExists(directory.resolve(CHILDREN_FILE));
+                this.records = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(directory.resolve(RECORDS_FILE))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Error creating store in: %s", directory), e);
+            }
+        }
+
+        /**
+         * Appends an employee to the store.
+         *
+         * @param employee the employee to add
+         * @throws UncheckedIOException if the record cannot be written
+         */
+        public void add(Employee employee) {
+            int ordinal = hierarchy.add(employee.id(), employee.managerId());
+            if (ordinal == recordOffsets.length) {
+                recordOffsets = Arrays.copyOf(recordOffsets, ordinal * 2);
+            }
+            recordOffsets[ordinal] = recordOffset;
+
+            try {
+                recordBuffer.reset();
+                DataOutputStream record = new DataOutputStream(recordBuffer);
+                record.writeInt(employee.id());
+                record.writeBoolean(employee.managerId().isPresent());
+                record.writeInt(employee.managerId().orElse(0));
+                record.writeInt(employee.salary().scale());
+                byte[] unscaledValue = employee.salary().unscaledValue().toByteArray();
+                record.writeShort(unscaledValue.length);
+                record.write(unscaledValue);
+                record.writeUTF(employee.firstName());
+                record.writeUTF(employee.lastName());
+
+                records.writeInt(recordBuffer.size());
+                recordBuffer.writeTo(records);
+                recordOffset += Integer.BYTES + recordBuffer.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Error writing employee: %s", employee), e);
+            }
+        }
+
+        /**
+         * Discards the store instead of completing it, for when not all employees could be added. The records written
+         * so far are deleted, so the directory never holds a records file that covers only part of the input. Closing
+         * the writer afterwards does nothing.
+         *
+         * @param cause the failure that stopped adding employees; failures to delete the files are added to it as
+         *              suppressed exceptions
+         */
+        public void abort(Throwable cause) {
+            aborted = true;
+            try {
+                records.close();
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(RECORDS_FILE));
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+
+        /**
+         * Completes the store by writing the sorted index and the adjacency file, unless the writer was
+         * {@link #abort aborted}.
+         *
+         * @throws UncheckedIOException if the store files cannot be written
+         */
+        @Override
+        public void close() {
+            if (aborted) {
+                return;
+            }
+            try {
+                records.close();
+
+                // Group subordinates by the index position of their manager
+                HierarchyIndex sorted = hierarchy.build();
+                int size = sorted.size();
+                int[] firstChild = new int[size + 1];
+                for (int position = 0; position < size; position++) {
+                    if (sorted.parent(position) >= 0) {
+                        firstChild[sorted.parent(position) + 1]++;
+                    }
+                }
+                for (int position = 0; position < size; position++) {
+                    firstChild[position + 1] += firstChild[position];
+                }
+                int[] childPositions = new int[firstChild[size]];
+                int[] nextChild = Arrays.copyOf(firstChild, size);
+                for (int position = 0; position < size; position++) {
+                    if (sorted.parent(position) >= 0) {
+                        childPositions[nextChild[sorted.parent(position)]++] = position;
+                    }
+                }
+
+                try (DataOutputStream index = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(directory.resolve(INDEX_FILE))))) {
+                    for (int position = 0; position < size; position++) {
+                        index.writeInt(sorted.id(position));
+                        index.writeLong(recordOffsets[sorted.ordinal(position)]);
+                        index.writeInt(firstChild[position]);
+                        index.writeInt(firstChild[position + 1] - firstChild[position]);
+                    }
+                }
+                try (DataOutputStream children = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(directory.resolve(CHILDREN_FILE))))) {
+                    for (int child : childPositions) {
+                        children.writeInt(child);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Error completing store in: %s", directory), e);
+            }
+        }
+    }
+}
@@ -2,8 +2,16 @@ package com.bigcompany.management;
 
 import com.bigcompany.model.Employee;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code EmployeeDataAccess} interface provides methods for accessing and retrieving
@@ -40,11 +48,32 @@ public interface EmployeeDataAccess {
      * If the employee has no managers, or if the employee is not found, this method
      * should return an empty list.
      *
+     * The default implementation follows the manager IDs upwards with {@link #getById(int)}, ordered from the direct
+     * manager to the uppermost one, and remembers the IDs it has seen to detect circular reporting lines.
+     * Implementations that store the hierarchy in a form that can be walked faster should override it.
+     *
      * @param employee the {@link Employee} whose managers are being requested.
      * @return A {@link List} of {@link Employee} objects representing the managers of the specified employee,
      *         never {@code null}.
+     * @throws IllegalArgumentException if the reporting line is circular
      */
-    List<Employee> getManagers(Employee employee);
+    default List<Employee> getManagers(Employee employee) {
+        var uniqueManagerIds = new HashSet<Integer>();
+        var managerId = employee.managerId();
+        var managers = new ArrayList<Employee>();
+        while (managerId.isPresent()) {
+            if (!uniqueManagerIds.add(managerId.get())) {
+                throw new IllegalArgumentException(
+                        String.format("Circular relationships in the managerial hierarchy. Employee: %s, Manager Ids: %s ",
+                                employee, uniqueManagerIds)
+                );
+            }
+            var manager = getById(managerId.get());
+            managers.add(manager);
+            managerId = manager.managerId();
+        }
+        return managers;
+    }
 
     /**
      * Retrieves a set of direct subordinates for a specified employee.
@@ -58,4 +87,91 @@ public interface EmployeeDataAccess {
      *         never {@code null}.
      */
     Set<Employee> getSubordinates(Employee employee);
+
+    /**
+     * Returns the IDs of all employees in ascending order.
+     *
+     * Together with the primitives below, this lets callers that only need a few figures per employee, such as
+     * {@link com.bigcompany.reporting.ReportGenerator}, walk the organization without materializing an {@link Employee}
+     * for every employee. The default implementation maps {@link #streamInIdOrder()} to the IDs; stores that keep the
+     * IDs in a column should override it.
+     *
+     * @return An {@link IntStream} of all employee IDs, never {@code null}.
+     */
+    default IntStream streamIdsInOrder() {
+        return streamInIdOrder().mapToInt(Employee::id);
+    }
+
+    /**
+     * Returns the salary of the employee with the given ID.
+     * The default implementation reads it from {@link #getById(int)}.
+     *
+     * @param id the unique identifier for the employee.
+     * @return the salary of the employee
+     */
+    default BigDecimal salaryOf(int id) {
+        return getById(id).salary();
+    }
+
+    /**
+     * Returns the number of managers in the reporting line of the employee with the given ID, that is, the size of
+     * {@link #getManagers(Employee)}, which the default implementation computes.
+     *
+     * @param id the unique identifier for the employee.
+     * @return the number of managers between the employee and the top of the organization
+     * @throws IllegalArgumentException if the reporting line is circular
+     */
+    default int reportingLineLength(int id) {
+        return getManagers(getById(id)).size();
+    }
+
+    /**
+     * Returns the number of direct subordinates of the employee with the given ID, that is, the size of
+     * {@link #getSubordinates(Employee)}, which the default implementation computes.
+     *
+     * @param id the unique identifier for the employee.
+     * @return the number of direct subordinates
+     */
+    default int directReportCount(int id) {
+        return getSubordinates(getById(id)).size();
+    }
+
+    /**
+     * Returns the sum of the salaries of the direct subordinates of the employee with the given ID, or zero if there
+     * are none. The default implementation adds up the salaries of {@link #getSubordinates(Employee)}.
+     *
+     * @param id the unique identifier for the employee.
+     * @return the sum of the salaries of the direct subordinates
+     */
+    default BigDecimal directReportSalarySum(int id) {
+        return getSubordinates(getById(id)).stream()
+                .map(Employee::salary)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Returns a spliterator traversing all employees in ascending order of their IDs.
+     *
+     * This is the preferred way to iterate over the whole organization: implementations that keep an ID-ordered index
+     * can traverse it without copying or sorting, and the returned spliterator can be split for parallel processing.
+     * The default implementation sorts a copy of {@link #getAllEmployees()}.
+     *
+     * @return An {@link Spliterator#ORDERED ordered} {@link Spliterator} over all {@link Employee} objects, never {@code null}.
+     */
+    default Spliterator<Employee> idOrderedSpliterator() {
+        return getAllEmployees().stream()
+                .sorted(Comparator.comparing(Employee::id))
+                .toList()
+                .spliterator();
+    }
+
+    /**
+     * Returns a sequential stream of all employees in ascending order of their IDs, backed by {@link #idOrderedSpliterator()}.
+     * Call {@link Stream#parallel()} on the result to process the employees in parallel.
+     *
+     * @return A {@link Stream} of all {@link Employee} objects, never {@code null}.
+     */
+    default Stream<Employee> streamInIdOrder() {
+        return StreamSupport.stream(idOrderedSpliterator(), false);
+    }
 }
@@ -0,0 +1,266 @@
+package com.bigcompany.management;
+
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A series of snapshots of an organization, such as monthly exports, in which each snapshot is stored as a delta over
+ * the previous one.
+ * <p>
+ * The employees and the subordinate index of every snapshot are kept in {@link PersistentIntMap}s. Adding a snapshot
+ * compares each employee with their record in the previous snapshot and updates the maps only for the employees that
+ * were hired, changed or left, so all unchanged employees, and the trie nodes above them, are shared with the previous
+ * snapshot. The memory used therefore grows with the number of changes between snapshots rather than with their
+ * number: an organization of a million employees of which a few percent change every month takes a fraction of the
+ * memory of one {@link InMemoryEmployeeDataAccess} per month.
+ * </p>
+ * Every snapshot is available as an {@link EmployeeDataAccess} view, and {@link #changes(int)} lists the employees
+ * that differ from the previous snapshot without comparing the snapshots in full, so analyses over all snapshots can
+ * revisit only what changed. Snapshots are added in chronological order and are immutable once added; the history
+ * itself is not thread-safe while snapshots are being added.
+ */
+public class EmployeeHistory {
+    private final List<String> periods = new ArrayList<>();
+    private final List<Snapshot> snapshots = new ArrayList<>();
+
+    /**
+     * Adds the snapshot of the organization at the end of the history.
+     * If several employees share an ID, the last one wins, as in {@link InMemoryEmployeeDataAccess}.
+     *
+     * @param period    the name of the period, e.g. {@code "2024-01"}; should not be null
+     * @param employees the employees of the organization in that period; should not be null
+     * @throws IllegalArgumentException if the history already contains a snapshot of the period
+     */
+    public void addSnapshot(String period, Iterable<Employee> employees) {
+        Objects.requireNonNull(period);
+        Objects.requireNonNull(employees);
+        if (periods.contains(period)) {
+            throw new IllegalArgumentException(String.format("Duplicate period: %s", period));
+        }
+
+        Snapshot previous = snapshots.isEmpty() ? Snapshot.EMPTY : snapshots.getLast();
+        PersistentIntMap<Employee> employeesById = previous.employeesById;
+        PersistentIntMap<PersistentIntMap<Employee>> subordinatesByManagerId = previous.subordinatesByManagerId;
+        Object edit = new Object(); // Nodes created while adding this snapshot are updated in place until it is published
+
+        int[] ids = new int[Math.max(16, previous.employeesById.size())];
+        int count = 0;
+        for (Employee employee : employees) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = employee.id();
+            Employee current = employeesById.get(employee.id());
+            if (employee.equals(current)) {
+                continue; // Unchanged, so the record of the previous snapshot is shared
+            }
+            if (current != null) {
+                subordinatesByManagerId = removeSubordinate(subordinatesByManagerId, current, edit);
+            }
+            employeesById = employeesById.put(employee.id(), employee, edit);
+            subordinatesByManagerId = addSubordinate(subordinatesByManagerId, employee, edit);
+        }
+
+        // Employees of the previous snapshot that are missing from this one have left
+        Arrays.sort(ids, 0, count);
+        for (Iterator<Employee> iterator = previous.employeesById.values(); iterator.hasNext(); ) {
+            Employee employee = iterator.next();
+            if (Arrays.binarySearch(ids, 0, count, employee.id()) < 0) {
+                employeesById = employeesById.remove(employee.id(), edit);
+                subordinatesByManagerId = removeSubordinate(subordinatesByManagerId, employee, edit);
+            }
+        }
+
+        periods.add(period);
+        snapshots.add(new Snapshot(employeesById, subordinatesByManagerId));
+    }
+
+    private static PersistentIntMap<PersistentIntMap<Employee>> addSubordinate(
+            PersistentIntMap<PersistentIntMap<Employee>> subordinatesByManagerId, Employee employee, Object edit) {
+        if (employee.managerId().isEmpty()) {
+            return subordinatesByManagerId;
+        }
+        int managerId = employee.managerId().get();
+        PersistentIntMap<Employee> subordinates = subordinatesByManagerId.get(managerId);
+        if (subordinates == null) {
+            subordinates = PersistentIntMap.empty();
+        }
+        return subordinatesByManagerId.put(managerId, subordinates.put(employee.id(), employee, edit), edit);
+    }
+
+    private static PersistentIntMap<PersistentIntMap<Employee>> removeSubordinate(
+            PersistentIntMap<PersistentIntMap<Employee>> subordinatesByManagerId, Employee employee, Object edit) {
+        if (employee.managerId().isEmpty()) {
+            return subordinatesByManagerId;
+        }
+        int managerId = employee.managerId().get();
+        PersistentIntMap<Employee> subordinates = subordinatesByManagerId.get(managerId).remove(employee.id(), edit);
+        return subordinates.isEmpty()
+                ? subordinatesByManagerId.remove(managerId, edit)
+                : subordinatesByManagerId.put(managerId, subordinates, edit);
+    }
+
+    /**
+     * @return the names of the periods in the order in which their snapshots were added
+     */
+    public List<String> periods() {
+        return Collections.unmodifiableList(periods);
+    }
+
+    /**
+     * Returns a view of the organization in the given period.
+     *
+     * @param period the name of the period
+     * @return the snapshot of the period
+     * @throws IllegalArgumentException if the history contains no snapshot of the period
+     */
+    public EmployeeDataAccess snapshot(String period) {
+        int index = periods.indexOf(period);
+        if (index < 0) {
+            throw new IllegalArgumentException(String.format("Unknown period: %s", period));
+        }
+        return snapshots.get(index);
+    }
+
+    /**
+     * Returns a view of the organization in the period with the given position in the history.
+     *
+     * @param periodIndex the position of the period, starting with 0 for the oldest one
+     * @return the snapshot of the period
+     */
+    public EmployeeDataAccess snapshot(int periodIndex) {
+        return snapshots.get(periodIndex);
+    }
+
+    /**
+     * Returns the employees who were hired, changed in any way or left in the given period, compared to the previous
+     * one. Only the parts of the two snapshots that are not shared are compared.
+     *
+     * @param periodIndex the position of the period, starting with 0 for the oldest one, in which all employees are new
+     * @return the changes in ascending order of employee ID
+     */
+    public List<Change> changes(int periodIndex) {
+        Snapshot previous = periodIndex == 0 ? Snapshot.EMPTY : snapshots.get(periodIndex - 1);
+        Snapshot current = snapshots.get(periodIndex);
+        int[][] ids = {new int[16]};
+        int[] count = {0};
+        PersistentIntMap.diff(previous.employeesById, current.employeesById, id -> {
+            if (count[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], count[0] * 2);
+            }
+            ids[0][count[0]++] = id;
+        });
+        Arrays.sort(ids[0], 0, count[0]);
+
+        List<Change> changes = new ArrayList<>(count[0]);
+        for (int i = 0; i < count[0]; i++) {
+            int id = ids[0][i];
+            changes.add(new Change(id, Optional.ofNullable(previous.employeesById.get(id)),
+                    Optional.ofNullable(current.employeesById.get(id))));
+        }
+        return changes;
+    }
+
+    /**
+     * The records of an employee before and after a change between two consecutive snapshots.
+     *
+     * @param id       the ID of the employee
+     * @param previous the record in the previous snapshot, or empty if the employee was hired
+     * @param current  the record in the current snapshot, or empty if the employee left
+     */
+    public record Change(int id, Optional<Employee> previous, Optional<Employee> current) {
+    }
+
+    /**
+     * A read-only view of one snapshot of the history.
+     */
+    private static final class Snapshot implements EmployeeDataAccess {
+        static final Snapshot EMPTY = new Snapshot(PersistentIntMap.empty(), PersistentIntMap.empty());
+
+        private final PersistentIntMap<Employee> employeesById;
+        private final PersistentIntMap<PersistentIntMap<Employee>> subordinatesByManagerId;
+
+        Snapshot(PersistentIntMap<Employee> employeesById,
+                 PersistentIntMap<PersistentIntMap<Employee>> subordinatesByManagerId) {
+            this.employeesById = employeesById;
+            this.subordinatesByManagerId = subordinatesByManagerId;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @throws EmployeeNotFoundException if no employee with the given ID exists in the snapshot
+         */
+        @Override
+        public Employee getById(int id) {
+            Employee employee = employeesById.get(id);
+            if (employee == null) {
+                throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+            }
+            return employee;
+        }
+
+        @Override
+        public Set<Employee> getAllEmployees() {
+            Set<Employee> employees = new HashSet<>();
+            employeesById.values().forEachRemaining(employees::add);
+            return employees;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The returned set is an unmodifiable view of the snapshot.
+         */
+        @Override
+        public Set<Employee> getSubordinates(Employee employee) {
+            PersistentIntMap<Employee> subordinates = subordinatesByManagerId.get(employee.id());
+            return subordinates == null ? Collections.emptySet() : new SubordinateSet(subordinates);
+        }
+
+        /**
+         * {@inheritDoc}
+         * The returned spliterator traverses the trie, which is ordered by ID, so nothing is copied or sorted.
+         */
+        @Override
+        public Spliterator<Employee> idOrderedSpliterator() {
+            return Spliterators.spliterator(employeesById.values(), employeesById.size(),
+                    Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+    }
+
+    private static final class SubordinateSet extends AbstractSet<Employee> {
+        private final PersistentIntMap<Employee> subordinates;
+
+        SubordinateSet(PersistentIntMap<Employee> subordinates) {
+            this.subordinates = subordinates;
+        }
+
+        @Override
+        public Iterator<Employee> iterator() {
+            return subordinates.values();
+        }
+
+        @Override
+        public int size() {
+            return subordinates.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Employee employee && employee.equals(subordinates.get(employee.id()));
+        }
+    }
+}
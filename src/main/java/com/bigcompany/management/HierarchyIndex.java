@@ -0,0 +1,149 @@
+package com.bigcompany.management;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The employees of an organization sorted by ID, with the position of every employee's manager in the same order.
+ * <p>
+ * The index is built from the (ID, manager ID) pairs of the employees in input order, such as the order of a file,
+ * and keeps a few primitive values per employee instead of the employees themselves, so that stores and planners
+ * fed by a streaming source never hold the organization on the heap. Every position also records the <i>ordinal</i>
+ * of the employee, that is, its place in the input order, so that callers can find the other values they collected
+ * for it. If several employees share an ID, the last one added wins, as in {@link InMemoryEmployeeDataAccess}.
+ * </p>
+ */
+public final class HierarchyIndex {
+    /**
+     * The parent of an employee without a manager.
+     */
+    public static final int NO_MANAGER = -1;
+    /**
+     * The parent of an employee whose manager ID does not belong to any employee.
+     */
+    public static final int UNKNOWN_MANAGER = -2;
+
+    private final int[] sortedIds;
+    private final int[] ordinals;
+    private final int[] managerIds;
+    private final int[] parents;
+
+    private HierarchyIndex(int[] sortedIds, int[] ordinals, int[] managerIds, int[] parents) {
+        this.sortedIds = sortedIds;
+        this.ordinals = ordinals;
+        this.managerIds = managerIds;
+        this.parents = parents;
+    }
+
+    /**
+     * @return the number of distinct employee IDs
+     */
+    public int size() {
+        return sortedIds.length;
+    }
+
+    /**
+     * @return the ID of the employee at the given position
+     */
+    public int id(int position) {
+        return sortedIds[position];
+    }
+
+    /**
+     * @return the place in the input order of the employee at the given position
+     */
+    public int ordinal(int position) {
+        return ordinals[position];
+    }
+
+    /**
+     * @return the manager ID of the employee at the given position, or 0 if the employee has no manager
+     */
+    public int managerId(int position) {
+        return managerIds[position];
+    }
+
+    /**
+     * @return the position of the manager of the employee at the given position, {@link #NO_MANAGER} or
+     * {@link #UNKNOWN_MANAGER}
+     */
+    public int parent(int position) {
+        return parents[position];
+    }
+
+    /**
+     * @return the position of the employee with the given ID, or a negative value if there is none
+     */
+    public int positionOf(int id) {
+        return Arrays.binarySearch(sortedIds, id);
+    }
+
+    /**
+     * Collects the (ID, manager ID) pairs of the employees, 16 bytes per employee, and sorts them once all are added.
+     */
+    public static final class Builder {
+        private static final long NO_MANAGER_ID = Long.MIN_VALUE;
+
+        private int count;
+        private long[] idsAndOrdinals = new long[1024];
+        private long[] managerIds = new long[1024];
+
+        /**
+         * Adds the next employee in input order.
+         *
+         * @return the ordinal of the employee
+         */
+        public int add(int id, Optional<Integer> managerId) {
+            if (count == idsAndOrdinals.length) {
+                idsAndOrdinals = Arrays.copyOf(idsAndOrdinals, count * 2);
+                managerIds = Arrays.copyOf(managerIds, count * 2);
+            }
+            idsAndOrdinals[count] = ((long) id << 32) | count;
+            managerIds[count] = managerId.map(Integer::longValue).orElse(NO_MANAGER_ID);
+            return count++;
+        }
+
+        /**
+         * @return the number of employees added so far, including those sharing an ID
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Sorts the employees added so far by ID and resolves every manager ID to a position.
+         */
+        public HierarchyIndex build() {
+            // Sort (id, ordinal) pairs and keep only the last occurrence of every ID
+            long[] sorted = Arrays.copyOf(idsAndOrdinals, count);
+            Arrays.sort(sorted);
+            int[] sortedIds = new int[count];
+            int[] ordinals = new int[count];
+            int size = 0;
+            for (int k = 0; k < count; k++) {
+                if (k + 1 < count && (int) (sorted[k + 1] >> 32) == (int) (sorted[k] >> 32)) {
+                    continue;
+                }
+                sortedIds[size] = (int) (sorted[k] >> 32);
+                ordinals[size] = (int) sorted[k];
+                size++;
+            }
+            sortedIds = Arrays.copyOf(sortedIds, size);
+            ordinals = Arrays.copyOf(ordinals, size);
+
+            int[] sortedManagerIds = new int[size];
+            int[] parents = new int[size];
+            for (int position = 0; position < size; position++) {
+                long managerId = managerIds[ordinals[position]];
+                if (managerId == NO_MANAGER_ID) {
+                    parents[position] = NO_MANAGER;
+                } else {
+                    sortedManagerIds[position] = (int) managerId;
+                    int parent = Arrays.binarySearch(sortedIds, (int) managerId);
+                    parents[position] = parent >= 0 ? parent : UNKNOWN_MANAGER;
+                }
+            }
+            return new HierarchyIndex(sortedIds, ordinals, sortedManagerIds, parents);
+        }
+    }
+}
@@ -3,14 +3,16 @@ package com.bigcompany.management;
 import com.bigcompany.management.exception.EmployeeNotFoundException;
 import com.bigcompany.model.Employee;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * Implements {@code EmployeeDataAccess} to manage employee data in memory.
@@ -27,10 +29,12 @@ import java.util.Set;
 public class InMemoryEmployeeDataAccess implements EmployeeDataAccess {
     private final Map<Integer, Employee> employeesById;
     private final Map<Integer, Set<Employee>> directSubordinatesByManagerId;
+    private final Employee[] employeesInIdOrder;
 
     /**
      * Constructs an InMemoryEmployeeDataAccess instance and initializes it with a set of employees.
-     * Employees are indexed by their ID for quick retrieval. Relationships for direct subordinates are also initialized.
+     * Employees are indexed by their ID for quick retrieval. Relationships for direct subordinates are also initialized,
+     * and the employees are sorted by ID once so that {@link #idOrderedSpliterator()} never has to copy or sort them.
      *
      * @param initialEmployees an iterable collection of initial employees to be loaded into the data access.
      */
@@ -48,6 +52,9 @@ public class InMemoryEmployeeDataAccess implements EmployeeDataAccess {
                         directSubordinatesByManagerId.putIfAbsent(managerId, sub);
                     });
         });
+
+        this.employeesInIdOrder = employeesById.values().toArray(Employee[]::new);
+        Arrays.sort(employeesInIdOrder, Comparator.comparing(Employee::id));
     }
 
     /**
@@ -77,45 +84,22 @@ public class InMemoryEmployeeDataAccess implements EmployeeDataAccess {
     }
 
     /**
-     * Retrieves a list of all managers directly up the line from the given employee, capped by {@code MAX_NUMBER_OF_MANAGERS}.
-     * This implementation provides an ordered traversal up the management chain from the directly responsible manager to the uppermost manager,
-     * ensuring that the chain of command is not excessively long by stopping traversal at the defined maximum number of allowable managers,
-     * thereby avoiding potential infinite loops.
-     * <p>
-     * Assumptions:
-     * <ul>
-     *     <li>This method will not be invoked multiple times for the same employee during the application lifecycle, thus results are not cached.</li>
-     * </ul>
-     * </p>
-     *
-     * @param employee the {@link Employee} for whom the managers are queried
-     * @return a list of {@link Employee} representing the managers in the lineage of the given employee
+     * {@inheritDoc}
+     * The returned spliterator traverses the index sorted at construction and splits evenly for parallel processing.
      */
     @Override
-    public List<Employee> getManagers(Employee employee) {
-        var uniqueManagerIds = new HashSet<Integer>();
-        var managerId = employee.managerId();
-        var managers = new ArrayList<Employee>();
-        while (managerId.isPresent()) {
-            if (uniqueManagerIds.contains(managerId.get())) {
-                throw new IllegalArgumentException(
-                        String.format("Circular relationships in the managerial hierarchy. Employee: %s, Manager Ids: %s ",
-                                employee, uniqueManagerIds)
-                );
-            }
-            uniqueManagerIds.add(managerId.get());
-            var manager = getById(managerId.get());
-            managers.add(manager);
-            managerId = manager.managerId();
-        }
-        return managers;
+    public Spliterator<Employee> idOrderedSpliterator() {
+        return Spliterators.spliterator(employeesInIdOrder,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
     }
 
     /**
      * {@inheritDoc}
+     * The returned set is an unmodifiable view of the internal index.
      */
     @Override
     public Set<Employee> getSubordinates(Employee employee) {
-        return directSubordinatesByManagerId.getOrDefault(employee.id(), Collections.emptySet());
+        return Collections.unmodifiableSet(
+                directSubordinatesByManagerId.getOrDefault(employee.id(), Collections.emptySet()));
     }
 }
@@ -0,0 +1,629 @@
+package com.bigcompany.management;
+
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Implements {@code EmployeeDataAccess} with all employee data stored outside the Java heap.
+ * <p>
+ * Employees are sorted by ID and stored column by column in {@link MemorySegment}s allocated from a shared
+ * {@link Arena}, optionally backed by a memory-mapped file. An employee is identified by its position in the sorted
+ * order (its index), and relationships are stored as indices:
+ * <ul>
+ *     <li><b>ids</b>, <b>salaries</b> (unscaled value and scale) and <b>manager ids</b> - one entry per employee.</li>
+ *     <li><b>parents</b> - the index of the manager, {@value #NO_MANAGER} if there is none, or
+ *     {@value #UNKNOWN_MANAGER} if the manager ID does not belong to any employee.</li>
+ *     <li><b>child offsets</b> and <b>children</b> - the direct subordinates of every employee in compressed sparse row
+ *     form: the subordinates of index {@code i} are {@code children[childOffsets[i]..childOffsets[i + 1])}.</li>
+ *     <li><b>name offsets</b> and <b>names</b> - the UTF-8 encoded first and last names of all employees.</li>
+ * </ul>
+ * The heap only holds this object and the segment handles; {@link Employee} records are materialized on access as
+ * short-lived flyweights, so the garbage collector never has to trace the organization itself. Organizations that
+ * should not be held on the heap even while loading are streamed into a {@link Builder} instead of passed as a list.
+ * </p>
+ * <p>
+ * Assumptions:
+ * <ul>
+ *     <li>If several employees share an ID, the last one wins, as in {@link InMemoryEmployeeDataAccess}.</li>
+ *     <li>Salaries have an unscaled value fitting in a {@code long} and a scale fitting in a {@code byte}.</li>
+ *     <li>The instance is {@link #close() closed} once no longer needed, which releases the memory or the mapping.</li>
+ * </ul>
+ * </p>
+ */
+public class OffHeapEmployeeDataAccess implements EmployeeDataAccess, AutoCloseable {
+    static final int NO_MANAGER = HierarchyIndex.NO_MANAGER;
+    static final int UNKNOWN_MANAGER = HierarchyIndex.UNKNOWN_MANAGER;
+    private static final int CIRCULAR = -1;
+
+    private final Arena arena;
+    private final int size;
+    private final MemorySegment salaries;
+    private final MemorySegment nameOffsets;
+    private final MemorySegment ids;
+    private final MemorySegment managerIds;
+    private final MemorySegment parents;
+    private final MemorySegment childOffsets;
+    private final MemorySegment children;
+    private final MemorySegment salaryScales;
+    private final MemorySegment names;
+    private int lastIndex;
+
+    /**
+     * Constructs an OffHeapEmployeeDataAccess instance holding the given employees in native memory.
+     *
+     * @param employees the employees to be loaded into the data access.
+     */
+    public OffHeapEmployeeDataAccess(List<Employee> employees) {
+        this(employees, null);
+    }
+
+    /**
+     * Constructs an OffHeapEmployeeDataAccess instance holding the given employees in a memory-mapped file, so the
+     * operating system can page the data in and out as needed. The file is created or overwritten.
+     *
+     * @param employees   the employees to be loaded into the data access.
+     * @param backingFile the file backing the memory, or {@code null} to use anonymous native memory.
+     * @throws UncheckedIOException if the backing file cannot be created or mapped.
+     */
+    public OffHeapEmployeeDataAccess(List<Employee> employees, Path backingFile) {
+        this(addAll(builder(backingFile), Objects.requireNonNull(employees)));
+    }
+
+    private OffHeapEmployeeDataAccess(Builder builder) {
+        HierarchyIndex index = builder.hierarchy.build();
+        this.size = index.size();
+
+        long nameBytes = 0;
+        int childCount = 0;
+        for (int position = 0; position < size; position++) {
+            int ordinal = index.ordinal(position);
+            nameBytes += builder.nameStarts[2 * ordinal + 2] - builder.nameStarts[2 * ordinal];
+            if (index.parent(position) >= 0) {
+                childCount++;
+            }
+        }
+
+        // Longs first, then ints, then bytes, so that every column is naturally aligned
+        long[] regionSizes = {
+                Long.BYTES * (long) size,             // salaries
+                Long.BYTES * (2L * size + 1),         // name offsets
+                Integer.BYTES * (long) size,          // ids
+                Integer.BYTES * (long) size,          // manager ids
+                Integer.BYTES * (long) size,          // parents
+                Integer.BYTES * (size + 1L),          // child offsets
+                Integer.BYTES * (long) childCount,    // children
+                size,                                 // salary scales
+                nameBytes                             // names
+        };
+        long totalBytes = Arrays.stream(regionSizes).sum();
+
+        this.arena = Arena.ofShared();
+        MemorySegment memory;
+        try {
+            memory = builder.backingFile == null
+                    ? arena.allocate(Math.max(totalBytes, 1), Long.BYTES)
+                    : map(builder.backingFile, totalBytes, arena);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+
+        MemorySegment[] regions = new MemorySegment[regionSizes.length];
+        long offset = 0;
+        for (int r = 0; r < regionSizes.length; r++) {
+            regions[r] = memory.asSlice(offset, regionSizes[r]);
+            offset += regionSizes[r];
+        }
+        this.salaries = regions[0];
+        this.nameOffsets = regions[1];
+        this.ids = regions[2];
+        this.managerIds = regions[3];
+        this.parents = regions[4];
+        this.childOffsets = regions[5];
+        this.children = regions[6];
+        this.salaryScales = regions[7];
+        this.names = regions[8];
+
+        // Copy the staged columns in ID order; the first and last name of an employee were staged back to back
+        long nameOffset = 0;
+        for (int position = 0; position < size; position++) {
+            int ordinal = index.ordinal(position);
+            ids.setAtIndex(ValueLayout.JAVA_INT, position, index.id(position));
+            managerIds.setAtIndex(ValueLayout.JAVA_INT, position, index.managerId(position));
+            parents.setAtIndex(ValueLayout.JAVA_INT, position, index.parent(position));
+            salaries.setAtIndex(ValueLayout.JAVA_LONG, position, builder.salaries[ordinal]);
+            salaryScales.setAtIndex(ValueLayout.JAVA_BYTE, position, builder.salaryScales[ordinal]);
+
+            int firstName = builder.nameStarts[2 * ordinal];
+            int lastName = builder.nameStarts[2 * ordinal + 1];
+            int end = builder.nameStarts[2 * ordinal + 2];
+            nameOffsets.setAtIndex(ValueLayout.JAVA_LONG, 2L * position, nameOffset);
+            nameOffsets.setAtIndex(ValueLayout.JAVA_LONG, 2L * position + 1, nameOffset + lastName - firstName);
+            MemorySegment.copy(builder.names, firstName, names, ValueLayout.JAVA_BYTE, nameOffset, end - firstName);
+            nameOffset += end - firstName;
+        }
+        nameOffsets.setAtIndex(ValueLayout.JAVA_LONG, 2L * size, nameOffset);
+
+        // Count subordinates per manager, turn the counts into offsets, then place every child at its manager's slot
+        int[] nextChild = new int[size + 1];
+        for (int position = 0; position < size; position++) {
+            if (index.parent(position) >= 0) {
+                nextChild[index.parent(position) + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            nextChild[i + 1] += nextChild[i];
+        }
+        for (int i = 0; i <= size; i++) {
+            childOffsets.setAtIndex(ValueLayout.JAVA_INT, i, nextChild[i]);
+        }
+        for (int position = 0; position < size; position++) {
+            int parent = index.parent(position);
+            if (parent >= 0) {
+                children.setAtIndex(ValueLayout.JAVA_INT, nextChild[parent]++, position);
+            }
+        }
+    }
+
+    /**
+     * Creates a builder for a store in anonymous native memory.
+     *
+     * @return a builder to add the employees to
+     */
+    public static Builder builder() {
+        return builder(null);
+    }
+
+    /**
+     * Creates a builder for a store in a memory-mapped file, which is created or overwritten when the store is built.
+     *
+     * @param backingFile the file backing the memory, or {@code null} to use anonymous native memory.
+     * @return a builder to add the employees to
+     */
+    public static Builder builder(Path backingFile) {
+        return new Builder(backingFile);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This override throws a {@link EmployeeNotFoundException} if the employee is not found.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public Employee getById(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+        }
+        return materialize(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The employees are materialized on the heap, so this should be avoided for very large organizations
+     * in favour of {@link #idOrderedSpliterator()}.
+     */
+    @Override
+    public Set<Employee> getAllEmployees() {
+        Set<Employee> employees = HashSet.newHashSet(size);
+        idOrderedSpliterator().forEachRemaining(employees::add);
+        return employees;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The managers are found by following the stored parent indices, ordered from the direct manager upwards. The
+     * reporting line is checked before any manager is materialized.
+     *
+     * @throws EmployeeNotFoundException if a manager in the reporting line does not exist
+     * @throws IllegalArgumentException  if the reporting line is circular
+     */
+    @Override
+    public List<Employee> getManagers(Employee employee) {
+        if (employee.managerId().isEmpty()) {
+            return new ArrayList<>();
+        }
+        int index = indexOf(employee.managerId().get());
+        if (index < 0) {
+            throw new EmployeeNotFoundException(
+                    String.format("Employee with ID %d not found.", employee.managerId().get()));
+        }
+        int managersAbove = managersAbove(index);
+        if (managersAbove == CIRCULAR) {
+            throw new IllegalArgumentException(
+                    String.format("Circular relationships in the managerial hierarchy. Employee: %s", employee));
+        }
+        var managers = new ArrayList<Employee>(managersAbove + 1);
+        for (; index >= 0; index = parents.getAtIndex(ValueLayout.JAVA_INT, index)) {
+            managers.add(materialize(index));
+        }
+        return managers;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Employee> getSubordinates(Employee employee) {
+        int index = indexOf(employee.id());
+        if (index < 0) {
+            return Set.of();
+        }
+        int from = childOffsets.getAtIndex(ValueLayout.JAVA_INT, index);
+        int to = childOffsets.getAtIndex(ValueLayout.JAVA_INT, index + 1);
+        Set<Employee> subordinates = HashSet.newHashSet(to - from);
+        for (int child = from; child < to; child++) {
+            subordinates.add(materialize(children.getAtIndex(ValueLayout.JAVA_INT, child)));
+        }
+        return subordinates;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The IDs are read from the ID column.
+     */
+    @Override
+    public IntStream streamIdsInOrder() {
+        return IntStream.range(0, size).map(index -> ids.getAtIndex(ValueLayout.JAVA_INT, index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The salary is read from the salary columns.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public BigDecimal salaryOf(int id) {
+        int index = requireIndexOf(id);
+        return BigDecimal.valueOf(salaries.getAtIndex(ValueLayout.JAVA_LONG, index),
+                salaryScales.getAtIndex(ValueLayout.JAVA_BYTE, index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The reporting line is walked over the parents column without allocating.
+     *
+     * @throws EmployeeNotFoundException if the employee or a manager in the reporting line does not exist
+     */
+    @Override
+    public int reportingLineLength(int id) {
+        int index = requireIndexOf(id);
+        int length = managersAbove(index);
+        if (length == CIRCULAR) {
+            throw new IllegalArgumentException(String.format(
+                    "Circular relationships in the managerial hierarchy. Employee: %s", materialize(index)));
+        }
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The count is read from the child offsets.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public int directReportCount(int id) {
+        int index = requireIndexOf(id);
+        return childOffsets.getAtIndex(ValueLayout.JAVA_INT, index + 1)
+                - childOffsets.getAtIndex(ValueLayout.JAVA_INT, index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The salaries are added up as unscaled values, which only allocates the result as long as all subordinates'
+     * salaries have the same scale and the sum fits in a {@code long}.
+     *
+     * @throws EmployeeNotFoundException if no employee with the given ID exists
+     */
+    @Override
+    public BigDecimal directReportSalarySum(int id) {
+        int index = requireIndexOf(id);
+        int from = childOffsets.getAtIndex(ValueLayout.JAVA_INT, index);
+        int to = childOffsets.getAtIndex(ValueLayout.JAVA_INT, index + 1);
+        if (from == to) {
+            return BigDecimal.ZERO;
+        }
+        byte scale = salaryScales.getAtIndex(ValueLayout.JAVA_BYTE, children.getAtIndex(ValueLayout.JAVA_INT, from));
+        long sum = 0;
+        for (int child = from; child < to; child++) {
+            int subordinate = children.getAtIndex(ValueLayout.JAVA_INT, child);
+            long salary = salaries.getAtIndex(ValueLayout.JAVA_LONG, subordinate);
+            long total = sum + salary;
+            boolean overflow = ((sum ^ total) & (salary ^ total)) < 0;
+            if (overflow || salaryScales.getAtIndex(ValueLayout.JAVA_BYTE, subordinate) != scale) {
+                return salarySum(from, to);
+            }
+            sum = total;
+        }
+        return BigDecimal.valueOf(sum, scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The spliterator walks the sorted columns directly and splits by index range.
+     */
+    @Override
+    public Spliterator<Employee> idOrderedSpliterator() {
+        return new IndexRangeSpliterator(0, size);
+    }
+
+    /**
+     * Releases the native memory, or unmaps the backing file. The instance must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private int indexOf(int id) {
+        // The report walk asks for the same employee several times in a row. The field is only a hint that is checked
+        // against the ID column, so concurrent callers overwriting it are harmless
+        int last = lastIndex;
+        if (last < size && ids.getAtIndex(ValueLayout.JAVA_INT, last) == id) {
+            return last;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = ids.getAtIndex(ValueLayout.JAVA_INT, middle);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                lastIndex = middle;
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int requireIndexOf(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.", id));
+        }
+        return index;
+    }
+
+    /**
+     * Counts the managers above the given index without materializing any of them. A second cursor follows the parents
+     * twice as fast and only meets the first one if the reporting line runs into a cycle (Floyd's cycle detection), so
+     * a cycle is found within a few times the length of the line instead of after {@code size} steps.
+     *
+     * @return the number of managers, or {@link #CIRCULAR} if the reporting line is circular
+     * @throws EmployeeNotFoundException if a manager in the reporting line does not exist
+     */
+    private int managersAbove(int index) {
+        int length = 0;
+        int fast = index;
+        while (true) {
+            int parent = parents.getAtIndex(ValueLayout.JAVA_INT, index);
+            if (parent == NO_MANAGER) {
+                return length;
+            }
+            if (parent == UNKNOWN_MANAGER) {
+                throw new EmployeeNotFoundException(String.format("Employee with ID %d not found.",
+                        managerIds.getAtIndex(ValueLayout.JAVA_INT, index)));
+            }
+            index = parent;
+            length++;
+            for (int step = 0; step < 2 && fast >= 0; step++) {
+                fast = parents.getAtIndex(ValueLayout.JAVA_INT, fast);
+            }
+            if (fast == index) {
+                return CIRCULAR;
+            }
+        }
+    }
+
+    private BigDecimal salarySum(int fromChild, int toChild) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int child = fromChild; child < toChild; child++) {
+            int subordinate = children.getAtIndex(ValueLayout.JAVA_INT, child);
+            sum = sum.add(BigDecimal.valueOf(salaries.getAtIndex(ValueLayout.JAVA_LONG, subordinate),
+                    salaryScales.getAtIndex(ValueLayout.JAVA_BYTE, subordinate)));
+        }
+        return sum;
+    }
+
+    private Employee materialize(int index) {
+        int parent = parents.getAtIndex(ValueLayout.JAVA_INT, index);
+        Optional<Integer> managerId = parent == NO_MANAGER
+                ? Optional.empty()
+                : Optional.of(managerIds.getAtIndex(ValueLayout.JAVA_INT, index));
+        BigDecimal salary = BigDecimal.valueOf(
+                salaries.getAtIndex(ValueLayout.JAVA_LONG, index),
+                salaryScales.getAtIndex(ValueLayout.JAVA_BYTE, index));
+        return new Employee(ids.getAtIndex(ValueLayout.JAVA_INT, index), name(2L * index), name(2L * index + 1),
+                salary, managerId);
+    }
+
+    private String name(long nameIndex) {
+        long from = nameOffsets.getAtIndex(ValueLayout.JAVA_LONG, nameIndex);
+        long to = nameOffsets.getAtIndex(ValueLayout.JAVA_LONG, nameIndex + 1);
+        byte[] bytes = new byte[(int) (to - from)];
+        MemorySegment.copy(names, ValueLayout.JAVA_BYTE, from, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Builder addAll(Builder builder, List<Employee> employees) {
+        employees.forEach(builder::add);
+        return builder;
+    }
+
+    private static MemorySegment map(Path backingFile, long totalBytes, Arena arena) {
+        try (FileChannel channel = FileChannel.open(backingFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(totalBytes, 1), arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Error mapping file: %s", backingFile), e);
+        }
+    }
+
+    /**
+     * Builds a store from employees added one at a time, so that it can be fed by a streaming source such as
+     * {@link com.bigcompany.reader.EmployeeInfoFileReader#readEmployeesFromFile} without the organization ever
+     * being held on the heap.
+     * <p>
+     * Every employee is staged in primitive arrays as it is added: its ID and manager ID in a
+     * {@link HierarchyIndex.Builder}, its salary as an unscaled value and a scale, and its UTF-8 encoded names in a
+     * shared byte array. That is about 33 bytes per employee plus the names, none of which the garbage collector has
+     * to trace. {@link #build()} sorts the IDs once and copies the staged columns into native memory in ID order.
+     * </p>
+     * <p>
+     * The names of all employees added must fit in a byte array, that is, stay below 2 GiB.
+     * </p>
+     */
+    public static final class Builder {
+        private final Path backingFile;
+        private final HierarchyIndex.Builder hierarchy = new HierarchyIndex.Builder();
+        private long[] salaries = new long[1024];
+        private byte[] salaryScales = new byte[1024];
+        // The first name of ordinal i starts at nameStarts[2i], its last name at nameStarts[2i + 1]
+        private int[] nameStarts = new int[2 * 1024 + 1];
+        private byte[] names = new byte[16 * 1024];
+
+        private Builder(Path backingFile) {
+            this.backingFile = backingFile;
+        }
+
+        /**
+         * Stages an employee for the store.
+         *
+         * @param employee the employee to add
+         * @throws IllegalArgumentException if the salary cannot be stored off-heap, or the names no longer fit
+         */
+        public void add(Employee employee) {
+            BigDecimal salary = employee.salary();
+            if (salary.scale() < Byte.MIN_VALUE || salary.scale() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Salary %s has an unsupported scale.", salary));
+            }
+            long unscaledValue;
+            try {
+                unscaledValue = salary.unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(
+                        String.format("Salary %s is too large to be stored off-heap.", salary), e);
+            }
+            byte[] firstName = employee.firstName().getBytes(StandardCharsets.UTF_8);
+            byte[] lastName = employee.lastName().getBytes(StandardCharsets.UTF_8);
+
+            int ordinal = hierarchy.count();
+            if (ordinal == salaries.length) {
+                salaries = Arrays.copyOf(salaries, ordinal * 2);
+                salaryScales = Arrays.copyOf(salaryScales, ordinal * 2);
+                nameStarts = Arrays.copyOf(nameStarts, ordinal * 4 + 1);
+            }
+            int nameStart = nameStarts[2 * ordinal];
+            ensureNameCapacity((long) nameStart + firstName.length + lastName.length);
+            System.arraycopy(firstName, 0, names, nameStart, firstName.length);
+            System.arraycopy(lastName, 0, names, nameStart + firstName.length, lastName.length);
+            nameStarts[2 * ordinal + 1] = nameStart + firstName.length;
+            nameStarts[2 * ordinal + 2] = nameStart + firstName.length + lastName.length;
+
+            salaries[ordinal] = unscaledValue;
+            salaryScales[ordinal] = (byte) salary.scale();
+            hierarchy.add(employee.id(), employee.managerId());
+        }
+
+        /**
+         * Sorts the employees added so far by ID and copies them into native memory, or into the backing file.
+         * The returned store must be {@link OffHeapEmployeeDataAccess#close() closed} once no longer needed.
+         *
+         * @return the store holding the employees added so far
+         * @throws UncheckedIOException if the backing file cannot be created or mapped.
+         */
+        public OffHeapEmployeeDataAccess build() {
+            return new OffHeapEmployeeDataAccess(this);
+        }
+
+        private void ensureNameCapacity(long required) {
+            if (required <= names.length) {
+                return;
+            }
+            // Stay clear of the VM's array size limit
+            long maxLength = Integer.MAX_VALUE - 8;
+            if (required > maxLength) {
+                throw new IllegalArgumentException("The names of the organization are too large to be staged.");
+            }
+            names = Arrays.copyOf(names, (int) Math.min(maxLength, Math.max(required, 2L * names.length)));
+        }
+    }
+
+    /**
+     * Traverses a range of indices, materializing employees one at a time; splits the range in halves.
+     */
+    private final class IndexRangeSpliterator implements Spliterator<Employee> {
+        private int from;
+        private final int to;
+
+        IndexRangeSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Employee> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(materialize(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Employee> action) {
+            while (from < to) {
+                action.accept(materialize(from++));
+            }
+        }
+
+        @Override
+        public Spliterator<Employee> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            Spliterator<Employee> prefix = new IndexRangeSpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+        }
+    }
+}
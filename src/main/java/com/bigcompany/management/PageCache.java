@@ -0,0 +1,91 @@
+package com.bigcompany.management;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of fixed-size file pages with least-recently-used eviction.
+ * <p>
+ * Pages of any number of files can share one cache, so the memory used for file contents is bounded by
+ * {@code capacity * }{@value #PAGE_SIZE} bytes regardless of the size of the files. The cache is safe for use
+ * by multiple threads; a page being read from disk blocks other readers of the cache.
+ * </p>
+ */
+final class PageCache {
+    static final int PAGE_SIZE = 8192;
+
+    private final int capacity;
+    private final Map<PageKey, byte[]> pages;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a cache holding at most the given number of pages.
+     *
+     * @param capacity the maximum number of cached pages; should be positive
+     */
+    PageCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Page cache capacity must be positive. Found: %d.", capacity));
+        }
+        this.capacity = capacity;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageKey, byte[]> eldest) {
+                return size() > PageCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the page with the given number of the given file, reading it from disk if it is not cached.
+     * The last page of a file may be shorter than {@value #PAGE_SIZE} bytes; the remainder is zero-filled.
+     *
+     * @param file       the file to read from
+     * @param pageNumber the zero-based number of the page
+     * @return the page contents; must not be modified
+     * @throws UncheckedIOException if the page cannot be read
+     */
+    synchronized byte[] page(FileChannel file, long pageNumber) {
+        PageKey key = new PageKey(file, pageNumber);
+        byte[] page = pages.get(key);
+        if (page != null) {
+            hits++;
+            return page;
+        }
+        misses++;
+        page = new byte[PAGE_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(page);
+        try {
+            long position = pageNumber * PAGE_SIZE;
+            while (buffer.hasRemaining() && file.read(buffer, position + buffer.position()) >= 0) {
+                // Keep reading until the page is full or the end of the file is reached
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading page " + pageNumber, e);
+        }
+        pages.put(key, page);
+        return page;
+    }
+
+    /**
+     * @return the number of page requests served from the cache
+     */
+    synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of page requests that had to read from disk
+     */
+    synchronized long misses() {
+        return misses;
+    }
+
+    private record PageKey(FileChannel file, long pageNumber) {
+    }
+}
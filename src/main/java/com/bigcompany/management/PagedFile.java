@@ -0,0 +1,89 @@
+package com.bigcompany.management;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only file whose contents are accessed through a {@link PageCache}.
+ * Multi-byte values are read in big-endian order, as written by {@link java.io.DataOutputStream}.
+ */
+final class PagedFile implements AutoCloseable {
+    private final FileChannel channel;
+    private final PageCache cache;
+    private final long size;
+
+    PagedFile(Path path, PageCache cache) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException(String.format("Error opening file: %s", path), e);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeFailure) {
+                    failure.addSuppressed(closeFailure);
+                }
+            }
+            throw failure;
+        }
+        this.channel = channel;
+        this.cache = cache;
+    }
+
+    long size() {
+        return size;
+    }
+
+    int readInt(long position) {
+        int offsetInPage = (int) (position % PageCache.PAGE_SIZE);
+        if (position >= 0 && position + Integer.BYTES <= size && offsetInPage + Integer.BYTES <= PageCache.PAGE_SIZE) {
+            // Fast path: the value does not cross a page boundary, so decode it directly from the cached page
+            return decodeInt(cache.page(channel, position / PageCache.PAGE_SIZE), offsetInPage);
+        }
+        byte[] bytes = new byte[Integer.BYTES];
+        read(position, bytes);
+        return decodeInt(bytes, 0);
+    }
+
+    long readLong(long position) {
+        return ((long) readInt(position) << 32) | (readInt(position + Integer.BYTES) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fills the given array with the bytes starting at the given position, crossing page boundaries as needed.
+     */
+    void read(long position, byte[] destination) {
+        if (position < 0 || position + destination.length > size) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Cannot read %d bytes at position %d of a file of %d bytes.", destination.length, position, size));
+        }
+        int copied = 0;
+        while (copied < destination.length) {
+            long current = position + copied;
+            byte[] page = cache.page(channel, current / PageCache.PAGE_SIZE);
+            int offsetInPage = (int) (current % PageCache.PAGE_SIZE);
+            int length = Math.min(destination.length - copied, PageCache.PAGE_SIZE - offsetInPage);
+            System.arraycopy(page, offsetInPage, destination, copied, length);
+            copied += length;
+        }
+    }
+
+    private static int decodeInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error closing file", e);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.bigcompany.management;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An immutable map from {@code int} keys to values, in which every update returns a new map sharing all unchanged
+ * parts with the old one.
+ * <p>
+ * The map is a bitmap-compressed trie in the style of CHAMP: each node covers 5 bits of the key, from the most
+ * significant bits down, and keeps the entries that are alone in their slot inline, so most lookups end one or two
+ * levels below the root. An update copies only the nodes on the path to its key, at most 7 of them, and all other
+ * nodes are shared between the old and the new map. As the bits are taken from the top, the entries are traversed in
+ * ascending key order without sorting, and {@link #diff} finds the keys that differ between two versions of a map by
+ * skipping every subtree the versions share.
+ * </p>
+ * Updates may pass an edit token, usually a fresh {@code Object}: nodes created under a token are updated in place by
+ * later updates with the same token instead of being copied again, which makes building a map or applying a large
+ * batch of changes much cheaper. A token must no longer be used once the maps built with it are shared, and only the
+ * latest map returned by a batch is valid. Values must not be null and are compared by identity.
+ *
+ * @param <V> the type of the values
+ */
+final class PersistentIntMap<V> {
+    private static final int BITS = 5;
+    private static final int ROOT_SHIFT = 30; // The root covers the top 2 bits, the 6 levels below it 5 bits each
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the value of the key, or {@code null} if the map does not contain it
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        return (V) root.find(key, ROOT_SHIFT);
+    }
+
+    PersistentIntMap<V> put(int key, V value) {
+        return put(key, value, null);
+    }
+
+    /**
+     * Returns a map in which the key has the given value, or this map if it already had that value.
+     *
+     * @param edit the edit token of the current batch of updates, or {@code null} to copy every changed node
+     */
+    PersistentIntMap<V> put(int key, V value, Object edit) {
+        Objects.requireNonNull(value);
+        boolean[] added = {false};
+        Node newRoot = root.put(key, value, ROOT_SHIFT, edit, added);
+        if (newRoot == root && !added[0]) {
+            return this;
+        }
+        return new PersistentIntMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    PersistentIntMap<V> remove(int key) {
+        return remove(key, null);
+    }
+
+    /**
+     * Returns a map without the key, or this map if it did not contain it.
+     *
+     * @param edit the edit token of the current batch of updates, or {@code null} to copy every changed node
+     */
+    PersistentIntMap<V> remove(int key, Object edit) {
+        boolean[] removed = {false};
+        Node newRoot = root.remove(key, ROOT_SHIFT, edit, removed);
+        return removed[0] ? new PersistentIntMap<>(newRoot, size - 1) : this;
+    }
+
+    /**
+     * Hands every entry to the consumer in ascending key order.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(ObjIntConsumer<? super V> consumer) {
+        root.forEach((ObjIntConsumer<Object>) consumer);
+    }
+
+    /**
+     * @return an iterator over the values in ascending key order
+     */
+    Iterator<V> values() {
+        return new ValueIterator<>(root);
+    }
+
+    /**
+     * Hands every key whose value differs between the two maps, including the keys contained in only one of them,
+     * to the consumer. Subtrees shared by both maps are skipped, so the cost is proportional to the number of
+     * changes rather than to the size of the maps when one map was derived from the other. Keys are not reported in
+     * any particular order.
+     */
+    static void diff(PersistentIntMap<?> first, PersistentIntMap<?> second, IntConsumer consumer) {
+        Node.diff(first.root, second.root, ROOT_SHIFT, consumer);
+    }
+
+    private static int bit(int key, int shift) {
+        // Flipping the sign bit makes the unsigned order of the keys, which the trie follows, their signed order
+        return 1 << (((key ^ Integer.MIN_VALUE) >>> shift) & 31);
+    }
+
+    private static final class Node {
+        static final Node EMPTY = new Node(null, 0, 0, new int[0], new Object[0], new Node[0]);
+
+        final Object edit;
+        int dataMap;
+        int nodeMap;
+        int[] keys;
+        Object[] values;
+        Node[] children;
+
+        Node(Object edit, int dataMap, int nodeMap, int[] keys, Object[] values, Node[] children) {
+            this.edit = edit;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+        }
+
+        static int index(int map, int bit) {
+            return Integer.bitCount(map & (bit - 1));
+        }
+
+        Node put(int key, Object value, int shift, Object edit, boolean[] added) {
+            int bit = bit(key, shift);
+            if ((dataMap & bit) != 0) {
+                int index = index(dataMap, bit);
+                if (keys[index] == key) {
+                    if (values[index] == value) {
+                        return this;
+                    }
+                    Node node = editable(edit);
+                    node.values[index] = value;
+                    return node;
+                }
+                // Two keys share the slot, so both move into a new node one level down
+                added[0] = true;
+                Node child = pair(keys[index], values[index], key, value, shift - BITS, edit);
+                Node node = editable(edit);
+                node.removeData(index, bit);
+                node.insertChild(index(nodeMap, bit), bit, child);
+                return node;
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = index(nodeMap, bit);
+                Node child = children[index];
+                Node newChild = child.put(key, value, shift - BITS, edit, added);
+                if (newChild == child) {
+                    return this;
+                }
+                Node node = editable(edit);
+                node.children[index] = newChild;
+                return node;
+            }
+            added[0] = true;
+            Node node = editable(edit);
+            node.insertData(index(dataMap, bit), bit, key, value);
+            return node;
+        }
+
+        Node remove(int key, int shift, Object edit, boolean[] removed) {
+            int bit = bit(key, shift);
+            if ((dataMap & bit) != 0) {
+                int index = index(dataMap, bit);
+                if (keys[index] != key) {
+                    return this;
+                }
+                removed[0] = true;
+                Node node = editable(edit);
+                node.removeData(index, bit);
+                return node;
+            }
+            if ((nodeMap & bit) == 0) {
+                return this;
+            }
+            int index = index(nodeMap, bit);
+            Node child = children[index];
+            Node newChild = child.remove(key, shift - BITS, edit, removed);
+            if (!removed[0]) {
+                return this;
+            }
+            Node node = editable(edit);
+            if (newChild.nodeMap == 0 && Integer.bitCount(newChild.dataMap) == 1) {
+                // A node left with a single entry is inlined into its parent, so every map has a single shape
+                node.removeChild(index, bit);
+                node.insertData(index(node.dataMap, bit), bit, newChild.keys[0], newChild.values[0]);
+            } else {
+                node.children[index] = newChild;
+            }
+            return node;
+        }
+
+        Object find(int key, int shift) {
+            Node node = this;
+            for (int s = shift; ; s -= BITS) {
+                int bit = bit(key, s);
+                if ((node.dataMap & bit) != 0) {
+                    int index = index(node.dataMap, bit);
+                    return node.keys[index] == key ? node.values[index] : null;
+                }
+                if ((node.nodeMap & bit) == 0) {
+                    return null;
+                }
+                node = node.children[index(node.nodeMap, bit)];
+            }
+        }
+
+        void forEach(ObjIntConsumer<Object> consumer) {
+            int dataIndex = 0;
+            int nodeIndex = 0;
+            for (int slots = dataMap | nodeMap; slots != 0; slots &= slots - 1) {
+                int bit = Integer.lowestOneBit(slots);
+                if ((dataMap & bit) != 0) {
+                    consumer.accept(values[dataIndex], keys[dataIndex]);
+                    dataIndex++;
+                } else {
+                    children[nodeIndex++].forEach(consumer);
+                }
+            }
+        }
+
+        static void diff(Node first, Node second, int shift, IntConsumer consumer) {
+            if (first == second) {
+                return;
+            }
+            for (int slots = first.dataMap | first.nodeMap | second.dataMap | second.nodeMap; slots != 0; slots &= slots - 1) {
+                int bit = Integer.lowestOneBit(slots);
+                if ((first.nodeMap & bit) != 0 && (second.nodeMap & bit) != 0) {
+                    diff(first.children[index(first.nodeMap, bit)], second.children[index(second.nodeMap, bit)],
+                            shift - BITS, consumer);
+                } else {
+                    // At most one side has a subtree here, so the entries of both sides are compared one by one
+                    int childShift = shift - BITS;
+                    first.forEachInSlot(bit, (value, key) -> {
+                        if (second.findInSlot(bit, key, childShift) != value) {
+                            consumer.accept(key);
+                        }
+                    });
+                    second.forEachInSlot(bit, (value, key) -> {
+                        if (first.findInSlot(bit, key, childShift) == null) {
+                            consumer.accept(key);
+                        }
+                    });
+                }
+            }
+        }
+
+        private void forEachInSlot(int bit, ObjIntConsumer<Object> consumer) {
+            if ((dataMap & bit) != 0) {
+                int index = index(dataMap, bit);
+                consumer.accept(values[index], keys[index]);
+            } else if ((nodeMap & bit) != 0) {
+                children[index(nodeMap, bit)].forEach(consumer);
+            }
+        }
+
+        private Object findInSlot(int bit, int key, int childShift) {
+            if ((dataMap & bit) != 0) {
+                int index = index(dataMap, bit);
+                return keys[index] == key ? values[index] : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                return children[index(nodeMap, bit)].find(key, childShift);
+            }
+            return null;
+        }
+
+        private static Node pair(int key1, Object value1, int key2, Object value2, int shift, Object edit) {
+            int bit1 = bit(key1, shift);
+            int bit2 = bit(key2, shift);
+            if (bit1 == bit2) {
+                Node child = pair(key1, value1, key2, value2, shift - BITS, edit);
+                return new Node(edit, 0, bit1, new int[0], new Object[0], new Node[]{child});
+            }
+            return Integer.compareUnsigned(bit1, bit2) < 0
+                    ? new Node(edit, bit1 | bit2, 0, new int[]{key1, key2}, new Object[]{value1, value2}, new Node[0])
+                    : new Node(edit, bit1 | bit2, 0, new int[]{key2, key1}, new Object[]{value2, value1}, new Node[0]);
+        }
+
+        private Node editable(Object edit) {
+            if (edit != null && this.edit == edit) {
+                return this;
+            }
+            return new Node(edit, dataMap, nodeMap, keys.clone(), values.clone(), children.clone());
+        }
+
+        private void insertData(int index, int bit, int key, Object value) {
+            int length = keys.length;
+            int[] newKeys = new int[length + 1];
+            Object[] newValues = new Object[length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            newKeys[index] = key;
+            newValues[index] = value;
+            System.arraycopy(keys, index, newKeys, index + 1, length - index);
+            System.arraycopy(values, index, newValues, index + 1, length - index);
+            keys = newKeys;
+            values = newValues;
+            dataMap |= bit;
+        }
+
+        private void removeData(int index, int bit) {
+            int length = keys.length;
+            int[] newKeys = Arrays.copyOf(keys, length - 1);
+            Object[] newValues = Arrays.copyOf(values, length - 1);
+            System.arraycopy(keys, index + 1, newKeys, index, length - index - 1);
+            System.arraycopy(values, index + 1, newValues, index, length - index - 1);
+            keys = newKeys;
+            values = newValues;
+            dataMap &= ~bit;
+        }
+
+        private void insertChild(int index, int bit, Node child) {
+            int length = children.length;
+            Node[] newChildren = new Node[length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = child;
+            System.arraycopy(children, index, newChildren, index + 1, length - index);
+            children = newChildren;
+            nodeMap |= bit;
+        }
+
+        private void removeChild(int index, int bit) {
+            int length = children.length;
+            Node[] newChildren = Arrays.copyOf(children, length - 1);
+            System.arraycopy(children, index + 1, newChildren, index, length - index - 1);
+            children = newChildren;
+            nodeMap &= ~bit;
+        }
+    }
+
+    /**
+     * Traverses the trie depth-first with an explicit stack of at most one node per level.
+     */
+    private static final class ValueIterator<V> implements Iterator<V> {
+        private final Node[] nodes = new Node[8];
+        private final int[] remainingSlots = new int[8];
+        private final int[] dataIndexes = new int[8];
+        private final int[] nodeIndexes = new int[8];
+        private int depth;
+        private Object next;
+        private boolean hasNext;
+
+        ValueIterator(Node root) {
+            push(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) next;
+            advance();
+            return value;
+        }
+
+        private void push(Node node) {
+            nodes[depth] = node;
+            remainingSlots[depth] = node.dataMap | node.nodeMap;
+            dataIndexes[depth] = 0;
+            nodeIndexes[depth] = 0;
+            depth++;
+        }
+
+        private void advance() {
+            while (depth > 0) {
+                int level = depth - 1;
+                int slots = remainingSlots[level];
+                if (slots == 0) {
+                    depth--;
+                    continue;
+                }
+                int bit = Integer.lowestOneBit(slots);
+                remainingSlots[level] = slots & (slots - 1);
+                Node node = nodes[level];
+                if ((node.dataMap & bit) != 0) {
+                    next = node.values[dataIndexes[level]++];
+                    hasNext = true;
+                    return;
+                }
+                push(node.children[nodeIndexes[level]++]);
+            }
+            next = null;
+            hasNext = false;
+        }
+    }
+}
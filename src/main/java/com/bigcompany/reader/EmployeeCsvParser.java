@@ -3,16 +3,20 @@ package com.bigcompany.reader;
 import com.bigcompany.model.Employee;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -59,18 +63,40 @@ public class EmployeeCsvParser implements EmployeeInfoFileReader {
      */
     @Override
     public List<Employee> loadEmployeesFromFile(String filePath) {
+        List<Employee> employees = new ArrayList<>();
+        readEmployeesFromFile(filePath, employees::add);
+        return employees;
+    }
+
+    /**
+     * Reads employee information from a CSV file line by line, handing each parsed {@link Employee} to the consumer
+     * without materializing the whole file in memory first.
+     *
+     * @param filePath the path to the CSV file containing employee data.
+     * @param consumer the consumer receiving each parsed employee in file order.
+     * @throws RuntimeException if there is an issue reading the file.
+     * @throws IllegalArgumentException if the file contains invalid data (e.g., malformed rows or missing fields).
+     */
+    @Override
+    public void readEmployeesFromFile(String filePath, Consumer<Employee> consumer) {
         Objects.requireNonNull(filePath);
+        Objects.requireNonNull(consumer);
         try (Stream<String> lines = Files.lines(Path.of(filePath))) {
-            List<String> allLines = lines.toList();
-            if (allLines.isEmpty()) return List.of();
+            Iterator<String> iterator = lines.iterator();
+            if (!iterator.hasNext()) return;
 
-            Map<String, Integer> headerMap = parseHeader(allLines.getFirst());
+            Map<String, Integer> headerMap = parseHeader(iterator.next());
             validateHeader(headerMap.keySet());
 
-            return allLines.stream().skip(1)  // Skip the header row
-                    .map(line -> parseEmployee(line, headerMap))
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
+            // The column order is fixed by the header, so the columns are looked up once per file instead of per row
+            ColumnLayout layout = ColumnLayout.of(headerMap);
+            // Names repeat heavily across a workforce, so every distinct name is stored once per file
+            NameDictionary names = new NameDictionary();
+            LineFields fields = new LineFields(layout.lastColumn() + 1);
+            while (iterator.hasNext()) {
+                consumer.accept(parseEmployee(iterator.next(), layout, fields, names));
+            }
+        } catch (IOException | UncheckedIOException e) {
             throw new RuntimeException(String.format("Error reading file: %s", filePath), e);
         }
     }
@@ -96,18 +122,22 @@ public class EmployeeCsvParser implements EmployeeInfoFileReader {
         return headerMap;
     }
 
-    private Employee parseEmployee(String line, Map<String, Integer> headerMap) {
-        String[] parts = line.split(",");
-        if (parts.length < mandatoryColumns.size()) {
+    private Employee parseEmployee(String line, ColumnLayout layout, LineFields fields, NameDictionary names) {
+        fields.split(line, layout.lastColumn());
+        if (fields.count() < mandatoryColumns.size()) {
             throw new IllegalArgumentException(String.format("Not enough data in line: %s", line));
         }
 
         try {
-            int id = Integer.parseInt(parts[headerMap.get(ID_COLUMN)].trim());
-            String firstName = parts[headerMap.get(FIRST_NAME_COLUMN)].trim();
-            String lastName = parts[headerMap.get(LAST_NAME_COLUMN)].trim();
-            BigDecimal salary = new BigDecimal(parts[headerMap.get(SALARY_COLUMN)].trim());
-            Optional<Integer> managerId = parseManagerId(parts, headerMap.get(MANAGER_ID_COLUMN));
+            int idColumn = requiredColumn(fields, layout.id(), line);
+            int id = Integer.parseInt(line, fields.start(idColumn), fields.end(idColumn), 10);
+            int firstNameColumn = requiredColumn(fields, layout.firstName(), line);
+            String firstName = names.intern(line, fields.start(firstNameColumn), fields.end(firstNameColumn));
+            int lastNameColumn = requiredColumn(fields, layout.lastName(), line);
+            String lastName = names.intern(line, fields.start(lastNameColumn), fields.end(lastNameColumn));
+            int salaryColumn = requiredColumn(fields, layout.salary(), line);
+            BigDecimal salary = new BigDecimal(line.substring(fields.start(salaryColumn), fields.end(salaryColumn)));
+            Optional<Integer> managerId = parseManagerId(line, fields, layout.managerId());
 
             Employee employee = new Employee(id, firstName, lastName, salary, managerId);
             validateRecord(employee, line);
@@ -117,11 +147,16 @@ public class EmployeeCsvParser implements EmployeeInfoFileReader {
         }
     }
 
-    private Optional<Integer> parseManagerId(String[] parts, Integer index) {
-        if (index != null && index < parts.length) {
-            return parts[index].trim().isEmpty()
-                    ? Optional.empty()
-                    : Optional.of(Integer.parseInt(parts[index].trim()));
+    private int requiredColumn(LineFields fields, int index, String line) {
+        if (index >= fields.count()) {
+            throw new IllegalArgumentException(String.format("Not enough data in line: %s", line));
+        }
+        return index;
+    }
+
+    private Optional<Integer> parseManagerId(String line, LineFields fields, int index) {
+        if (index < fields.count() && fields.start(index) < fields.end(index)) {
+            return Optional.of(Integer.parseInt(line, fields.start(index), fields.end(index), 10));
         }
         return Optional.empty();
     }
@@ -131,4 +166,100 @@ public class EmployeeCsvParser implements EmployeeInfoFileReader {
             throw new IllegalArgumentException(String.format("First name or last name cannot be empty in line: %s", line));
         }
     }
+
+    /**
+     * The positions of the columns read from every line, resolved from the header once per file.
+     */
+    private record ColumnLayout(int id, int firstName, int lastName, int salary, int managerId) {
+        static ColumnLayout of(Map<String, Integer> headerMap) {
+            return new ColumnLayout(headerMap.get(ID_COLUMN), headerMap.get(FIRST_NAME_COLUMN),
+                    headerMap.get(LAST_NAME_COLUMN), headerMap.get(SALARY_COLUMN), headerMap.get(MANAGER_ID_COLUMN));
+        }
+
+        /**
+         * @return the position of the last column read; the columns after it are never split
+         */
+        int lastColumn() {
+            return Math.max(Math.max(id, firstName), Math.max(Math.max(lastName, salary), managerId));
+        }
+    }
+
+    /**
+     * The boundaries of the comma-separated fields of a line, trimmed like {@link String#trim()}.
+     * <p>
+     * Fields are addressed by character ranges of the line instead of being split into separate strings,
+     * so that values which are parsed or looked up in place never have to be copied. Like {@link String#split(String)},
+     * trailing empty fields are not counted. Fields after the last one of interest are not split at all; they only
+     * count as data if they are not blank. Instances are reused from line to line.
+     * </p>
+     */
+    private static final class LineFields {
+        private int[] starts;
+        private int[] ends;
+        private int count;
+
+        LineFields(int expectedCount) {
+            starts = new int[Math.max(1, expectedCount)];
+            ends = new int[Math.max(1, expectedCount)];
+        }
+
+        void split(String line, int lastField) {
+            count = 0;
+            int nonEmptyCount = 0;
+            int fieldStart = 0;
+            for (int i = 0; i <= line.length(); i++) {
+                if (i == line.length() || line.charAt(i) == ',') {
+                    add(line, fieldStart, i);
+                    if (i > fieldStart) {
+                        nonEmptyCount = count;
+                    }
+                    fieldStart = i + 1;
+                    if (count > lastField && i < line.length()) {
+                        if (hasData(line, fieldStart)) {
+                            nonEmptyCount = count;
+                        }
+                        break;
+                    }
+                }
+            }
+            count = nonEmptyCount;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int start(int index) {
+            return starts[index];
+        }
+
+        int end(int index) {
+            return ends[index];
+        }
+
+        private static boolean hasData(String line, int from) {
+            for (int i = from; i < line.length(); i++) {
+                if (line.charAt(i) != ',') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(String line, int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            while (start < end && line.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && line.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+    }
 }
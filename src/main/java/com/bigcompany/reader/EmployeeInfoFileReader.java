@@ -3,6 +3,7 @@ package com.bigcompany.reader;
 import com.bigcompany.model.Employee;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The {@code EmployeeInfoFileReader} interface provides a method
@@ -25,4 +26,18 @@ public interface EmployeeInfoFileReader {
      *         An empty list is returned if the file is empty or the content does not map correctly to employee data.
      */
     List<Employee> loadEmployeesFromFile(String filePath);
+
+    /**
+     * Reads employees from a specified file and hands each one to the given consumer as soon as it is parsed.
+     *
+     * This allows downstream stages (for example, index construction) to start working before the whole file
+     * has been read. The default implementation loads the full list via {@link #loadEmployeesFromFile(String)}
+     * and replays it; implementations that can parse incrementally should override it.
+     *
+     * @param filePath the path to the file that contains employee information.
+     * @param consumer the consumer receiving each {@link Employee} in file order; should not be null
+     */
+    default void readEmployeesFromFile(String filePath, Consumer<Employee> consumer) {
+        loadEmployeesFromFile(filePath).forEach(consumer);
+    }
 }
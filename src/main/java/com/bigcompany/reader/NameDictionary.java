@@ -0,0 +1,73 @@
+package com.bigcompany.reader;
+
+/**
+ * An intern table for names read from a file, so that each distinct name is stored once no matter how many
+ * employees share it.
+ * <p>
+ * Names are looked up by a range of characters of the line they appear in. The range is hashed and compared in place,
+ * so a lookup of a name that is already in the dictionary allocates nothing; only the first occurrence of a name
+ * creates a {@link String}. The table uses open addressing with linear probing and is not thread-safe.
+ * </p>
+ */
+final class NameDictionary {
+    private static final int INITIAL_CAPACITY = 1024; // Must be a power of two
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the shared instance of the name formed by the characters of {@code line} from {@code start}
+     * (inclusive) to {@code end} (exclusive), adding it to the dictionary if it is not there yet.
+     */
+    String intern(String line, int start, int end) {
+        int length = end - start;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + line.charAt(i); // Same as String.hashCode()
+        }
+
+        int mask = names.length - 1;
+        int slot = spread(hash) & mask;
+        for (String name = names[slot]; name != null; name = names[slot]) {
+            if (hashes[slot] == hash && name.length() == length && line.regionMatches(start, name, 0, length)) {
+                return name;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String name = line.substring(start, end);
+        names[slot] = name;
+        hashes[slot] = hash;
+        if (++size * 2 > names.length) {
+            grow();
+        }
+        return name;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        names = new String[oldNames.length * 2];
+        hashes = new int[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = oldNames[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,312 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.management.EmployeeHistory;
+import com.bigcompany.model.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Trends over all periods of an {@link EmployeeHistory}: the growth of reporting lines from period to period, and the
+ * managers whose salary is outside the expected band relative to their direct reports in more than one period.
+ * <p>
+ * The trends are computed in a single pass over the history. The first period is checked in full, exactly like
+ * {@link ReportGenerator} does. Every later period only rechecks the employees whose result can differ from the
+ * previous period: the employees who changed, their old and new managers, whose subordinates' average salary changed,
+ * and everyone below an employee who was hired or moved to another manager, whose reporting line changed. The result
+ * of each of them in the previous period is subtracted from the running figures and the new one is added, so the cost
+ * of a period is proportional to its changes rather than to the size of the organization.
+ * </p>
+ * For each salary offender, the periods out of band are counted from the periods in which they started and stopped
+ * being out of band, so nothing is stored per period and employee.
+ */
+public class HistoryTrends {
+    public static final int DEFAULT_MIN_OFFENDING_PERIODS = 2;
+
+    private final List<PeriodSummary> periods;
+    private final Map<Integer, Offender> offenders;
+
+    /**
+     * The reporting-line figures of one period.
+     *
+     * @param period                 the name of the period
+     * @param headcount              the number of employees
+     * @param totalReportingLines    the sum of the number of managers above every employee
+     * @param longestReportingLine   the largest number of managers above an employee
+     * @param tooLongReportingLines  the number of employees with more than the allowed number of managers above them
+     */
+    public record PeriodSummary(String period, int headcount, long totalReportingLines, int longestReportingLine,
+                                int tooLongReportingLines) {
+
+        /**
+         * @return the average number of managers above an employee, rounded half-up to two decimal places
+         */
+        public BigDecimal averageReportingLine() {
+            return headcount == 0
+                    ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(totalReportingLines).divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * A manager who earned less or more than expected in at least one period.
+     *
+     * @param employee         the latest record of the employee in which they were out of band
+     * @param periodsUnderpaid the number of periods in which they earned less than expected
+     * @param periodsOverpaid  the number of periods in which they earned more than expected
+     */
+    public record Offender(Employee employee, int periodsUnderpaid, int periodsOverpaid) {
+        public int periods() {
+            return periodsUnderpaid + periodsOverpaid;
+        }
+    }
+
+    private record Status(boolean underpaid, boolean overpaid, int reportingLineLength) {
+    }
+
+    private HistoryTrends(List<PeriodSummary> periods, Map<Integer, Offender> offenders) {
+        this.periods = periods;
+        this.offenders = offenders;
+    }
+
+    /**
+     * Computes the trends of all periods of the history.
+     *
+     * @param history the history to analyze; should not be null
+     * @return the computed trends
+     * @throws com.bigcompany.management.exception.EmployeeNotFoundException if a manager is missing from a period
+     * @throws IllegalArgumentException if the hierarchy of a period contains a cycle
+     */
+    public static HistoryTrends compute(EmployeeHistory history) {
+        Objects.requireNonNull(history);
+        Accumulator accumulator = new Accumulator();
+        List<PeriodSummary> periods = new ArrayList<>();
+        for (int period = 0; period < history.periods().size(); period++) {
+            EmployeeDataAccess current = history.snapshot(period);
+            ReportGenerator currentGenerator = new ReportGenerator(current);
+            if (period == 0) {
+                current.idOrderedSpliterator().forEachRemaining(employee -> {
+                    Status status = check(currentGenerator, employee);
+                    accumulator.add(status);
+                    accumulator.updateOffender(employee.id(), null, status, employee, 0);
+                });
+            } else {
+                EmployeeDataAccess previous = history.snapshot(period - 1);
+                ReportGenerator previousGenerator = new ReportGenerator(previous);
+                Map<Integer, EmployeeHistory.Change> changes = new HashMap<>();
+                history.changes(period).forEach(change -> changes.put(change.id(), change));
+                for (int id : affectedIds(changes, previous, current)) {
+                    EmployeeHistory.Change change = changes.get(id);
+                    // Employees without a change are in both periods with the same record
+                    Employee before = change != null ? change.previous().orElse(null) : previous.getById(id);
+                    Employee after = change != null ? change.current().orElse(null) : current.getById(id);
+                    Status beforeStatus = before == null ? null : check(previousGenerator, before);
+                    Status afterStatus = after == null ? null : check(currentGenerator, after);
+                    if (beforeStatus != null) {
+                        accumulator.remove(beforeStatus);
+                    }
+                    if (afterStatus != null) {
+                        accumulator.add(afterStatus);
+                    }
+                    accumulator.updateOffender(id, beforeStatus, afterStatus, after, period);
+                }
+            }
+            periods.add(accumulator.summary(history.periods().get(period)));
+        }
+        return new HistoryTrends(periods, accumulator.offenders(history.periods().size()));
+    }
+
+    private static Set<Integer> affectedIds(Map<Integer, EmployeeHistory.Change> changes,
+                                            EmployeeDataAccess previous, EmployeeDataAccess current) {
+        Set<Integer> affected = new HashSet<>(changes.keySet());
+        Deque<Employee> movedSubtrees = new ArrayDeque<>();
+        for (EmployeeHistory.Change change : changes.values()) {
+            // The average salary of the direct reports of the old and the new manager may have changed
+            change.previous().flatMap(Employee::managerId).ifPresent(affected::add);
+            change.current().flatMap(Employee::managerId).ifPresent(affected::add);
+            if (change.current().isPresent()) {
+                boolean moved = change.previous()
+                        .map(before -> !before.managerId().equals(change.current().get().managerId()))
+                        .orElse(true);
+                if (moved) {
+                    movedSubtrees.push(change.current().get());
+                }
+            } else {
+                // The direct reports of an employee who left lost their manager
+                previous.getSubordinates(change.previous().get()).forEach(subordinate -> affected.add(subordinate.id()));
+            }
+        }
+        // The reporting line of everyone below a hired or moved employee changed as well
+        Set<Integer> visited = new HashSet<>();
+        while (!movedSubtrees.isEmpty()) {
+            Employee employee = movedSubtrees.pop();
+            if (visited.add(employee.id())) {
+                affected.add(employee.id());
+                movedSubtrees.addAll(current.getSubordinates(employee));
+            }
+        }
+        return affected;
+    }
+
+    private static Status check(ReportGenerator generator, Employee employee) {
+        boolean[] outOfBand = new boolean[2];
+        int reportingLineLength = generator.checkEmployee(employee, entry -> {
+            if (entry.message().equals(ReportGenerator.UNDERPAID_MESSAGE)) {
+                outOfBand[0] = true;
+            } else if (entry.message().equals(ReportGenerator.OVERPAID_MESSAGE)) {
+                outOfBand[1] = true;
+            }
+        }, null);
+        return new Status(outOfBand[0], outOfBand[1], reportingLineLength);
+    }
+
+    /**
+     * @return the reporting-line figures of every period, in the order of the history
+     */
+    public List<PeriodSummary> periods() {
+        return periods;
+    }
+
+    /**
+     * Returns the managers who were out of band in at least the given number of periods.
+     *
+     * @param minPeriods the smallest number of periods
+     * @return the offenders in ascending order of employee ID
+     */
+    public List<Offender> repeatOffenders(int minPeriods) {
+        return offenders.values().stream()
+                .filter(offender -> offender.periods() >= minPeriods)
+                .toList();
+    }
+
+    /**
+     * Returns the reporting-line figures per period and the managers who were out of band in at least
+     * {@link #DEFAULT_MIN_OFFENDING_PERIODS} periods as report sections.
+     *
+     * @return a section with one line per period and a section with one line per repeat offender
+     */
+    public List<ReportSection> sections() {
+        List<String> perPeriod = periods.stream()
+                .map(summary -> String.format(
+                        "Period: %s, Headcount: %d, Average reporting line: %s, Longest reporting line: %d, Too many managers: %d",
+                        summary.period(), summary.headcount(), summary.averageReportingLine().toPlainString(),
+                        summary.longestReportingLine(), summary.tooLongReportingLines()))
+                .toList();
+        List<String> perOffender = repeatOffenders(DEFAULT_MIN_OFFENDING_PERIODS).stream()
+                .map(offender -> String.format("Employee ID: %s, Name: %s %s, Periods underpaid: %d, Periods overpaid: %d",
+                        offender.employee().id(), offender.employee().firstName(), offender.employee().lastName(),
+                        offender.periodsUnderpaid(), offender.periodsOverpaid()))
+                .toList();
+        return List.of(new ReportSection("Reporting lines per period", perPeriod),
+                new ReportSection("Repeat salary offenders", perOffender));
+    }
+
+    /**
+     * The running figures of the current period, and the out-of-band intervals of every offender so far.
+     */
+    private static final class Accumulator {
+        private int headcount;
+        private long totalReportingLines;
+        private int tooLongReportingLines;
+        private int[] headcountByReportingLine = new int[8];
+        private final Map<Integer, OffenderState> offenders = new TreeMap<>();
+        void add(Status status) {
+            update(status, 1);
+        }
+
+        void remove(Status status) {
+            update(status, -1);
+        }
+
+        private void update(Status status, int sign) {
+            int length = status.reportingLineLength();
+            if (length >= headcountByReportingLine.length) {
+                headcountByReportingLine = Arrays.copyOf(headcountByReportingLine,
+                        Math.max(length + 1, headcountByReportingLine.length * 2));
+            }
+            headcountByReportingLine[length] += sign;
+            headcount += sign;
+            totalReportingLines += (long) sign * length;
+            if (length > ReportGenerator.MAX_ALLOWED_MANAGERS) {
+                tooLongReportingLines += sign;
+            }
+        }
+
+        /**
+         * Records the change of an employee's salary checks in the given period.
+         *
+         * @param before   the result in the previous period, or {@code null} if the employee was not there
+         * @param after    the result in this period, or {@code null} if the employee left
+         * @param employee the record in this period, or {@code null} if the employee left
+         */
+        void updateOffender(int id, Status before, Status after, Employee employee, int period) {
+            boolean wasUnderpaid = before != null && before.underpaid();
+            boolean wasOverpaid = before != null && before.overpaid();
+            boolean isUnderpaid = after != null && after.underpaid();
+            boolean isOverpaid = after != null && after.overpaid();
+            if (wasUnderpaid == isUnderpaid && wasOverpaid == isOverpaid && !isUnderpaid && !isOverpaid) {
+                return;
+            }
+            OffenderState state = offenders.computeIfAbsent(id, key -> new OffenderState());
+            if (isUnderpaid || isOverpaid) {
+                state.employee = employee;
+            }
+            state.underpaid.update(wasUnderpaid, isUnderpaid, period);
+            state.overpaid.update(wasOverpaid, isOverpaid, period);
+        }
+
+        PeriodSummary summary(String period) {
+            int longest = headcountByReportingLine.length - 1;
+            while (longest > 0 && headcountByReportingLine[longest] == 0) {
+                longest--;
+            }
+            return new PeriodSummary(period, headcount, totalReportingLines, longest, tooLongReportingLines);
+        }
+
+        Map<Integer, Offender> offenders(int periodCount) {
+            Map<Integer, Offender> result = new TreeMap<>();
+            offenders.forEach((id, state) -> result.put(id, new Offender(state.employee,
+                    state.underpaid.periods(periodCount), state.overpaid.periods(periodCount))));
+            return result;
+        }
+    }
+
+    private static final class OffenderState {
+        private Employee employee;
+        private final Interval underpaid = new Interval();
+        private final Interval overpaid = new Interval();
+    }
+
+    /**
+     * Counts the periods in which a condition held from the periods in which it started and stopped holding.
+     */
+    private static final class Interval {
+        private int periods;
+        private int since = -1;
+
+        void update(boolean was, boolean is, int period) {
+            if (!was && is) {
+                since = period;
+            } else if (was && !is) {
+                periods += period - since;
+                since = -1;
+            }
+        }
+
+        int periods(int periodCount) {
+            return since < 0 ? periods : periods + periodCount - since;
+        }
+    }
+}
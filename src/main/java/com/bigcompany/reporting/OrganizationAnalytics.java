@@ -0,0 +1,129 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.model.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Collects span-of-control and per-level figures of an organization while {@link ReportGenerator} analyzes it.
+ * <p>
+ * The generator hands every employee to this accumulator together with the number of direct reports and the length
+ * of the reporting line it has already computed for its own checks, so the figures cost no additional pass over the
+ * data. The accumulator collects:
+ * <ul>
+ *     <li>A histogram of the number of direct reports of managers.</li>
+ *     <li>Headcount and payroll per level, where the level of an employee is the number of managers above them.</li>
+ * </ul>
+ * Managers whose number of direct reports lies outside the configured range are reported as {@link ReportEntry}
+ * items as they are found, so they are not retained here. The memory used is proportional to the number of levels
+ * and the largest number of direct reports, independent of the size of the organization.
+ * </p>
+ * An instance accumulates the figures of a single report and is not thread-safe.
+ */
+public class OrganizationAnalytics {
+    public static final int DEFAULT_MIN_DIRECT_REPORTS = 2; // A manager of a single employee adds a level without adding span
+    public static final int DEFAULT_MAX_DIRECT_REPORTS = 10;
+
+    static final String TOO_MANY_DIRECT_REPORTS_MESSAGE = "Too many direct reports";
+    static final String TOO_FEW_DIRECT_REPORTS_MESSAGE = "Too few direct reports";
+
+    private final int minDirectReports;
+    private final int maxDirectReports;
+
+    private long[] managersByDirectReports = new long[DEFAULT_MAX_DIRECT_REPORTS + 1];
+    private long[] headcountByLevel = new long[8];
+    private BigDecimal[] payrollByLevel = new BigDecimal[8];
+    private int levels;
+    private long managers;
+    private long directReports;
+
+    public OrganizationAnalytics() {
+        this(DEFAULT_MIN_DIRECT_REPORTS, DEFAULT_MAX_DIRECT_REPORTS);
+    }
+
+    /**
+     * @param minDirectReports the smallest number of direct reports a manager should have
+     * @param maxDirectReports the largest number of direct reports a manager should have
+     * @throws IllegalArgumentException if the range is empty or the minimum is below one
+     */
+    public OrganizationAnalytics(int minDirectReports, int maxDirectReports) {
+        if (minDirectReports < 1 || maxDirectReports < minDirectReports) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid range of direct reports: %d to %d", minDirectReports, maxDirectReports));
+        }
+        this.minDirectReports = minDirectReports;
+        this.maxDirectReports = maxDirectReports;
+    }
+
+    /**
+     * Records a single employee and reports it to the sink if it manages too many or too few employees.
+     *
+     * @param employee      the employee
+     * @param directReports the number of employees reporting directly to the employee
+     * @param level         the number of managers above the employee
+     * @param sink          the consumer receiving report entries for managers with an unusual span of control
+     */
+    void record(Employee employee, int directReports, int level, Consumer<ReportEntry> sink) {
+        if (level >= headcountByLevel.length) {
+            int capacity = Math.max(level + 1, headcountByLevel.length * 2);
+            headcountByLevel = Arrays.copyOf(headcountByLevel, capacity);
+            payrollByLevel = Arrays.copyOf(payrollByLevel, capacity);
+        }
+        headcountByLevel[level]++;
+        payrollByLevel[level] = payrollByLevel[level] == null
+                ? employee.salary()
+                : payrollByLevel[level].add(employee.salary());
+        levels = Math.max(levels, level + 1);
+
+        if (directReports == 0) {
+            return;
+        }
+        if (directReports >= managersByDirectReports.length) {
+            managersByDirectReports = Arrays.copyOf(managersByDirectReports,
+                    Math.max(directReports + 1, managersByDirectReports.length * 2));
+        }
+        managersByDirectReports[directReports]++;
+        managers++;
+        this.directReports += directReports;
+
+        if (directReports > maxDirectReports) {
+            String message = String.format("%s by %d", TOO_MANY_DIRECT_REPORTS_MESSAGE, directReports - maxDirectReports);
+            sink.accept(new ReportEntry(employee, message, Optional.empty()));
+        } else if (directReports < minDirectReports) {
+            String message = String.format("%s by %d", TOO_FEW_DIRECT_REPORTS_MESSAGE, minDirectReports - directReports);
+            sink.accept(new ReportEntry(employee, message, Optional.empty()));
+        }
+    }
+
+    /**
+     * Returns the figures collected so far as report sections.
+     *
+     * @return a span-of-control section and a per-level section
+     */
+    public List<ReportSection> sections() {
+        List<String> spanOfControl = new ArrayList<>();
+        BigDecimal averageDirectReports = managers == 0
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(directReports).divide(BigDecimal.valueOf(managers), 2, RoundingMode.HALF_UP);
+        spanOfControl.add(String.format("Managers: %d, Average direct reports: %s", managers, averageDirectReports.toPlainString()));
+        for (int count = 1; count < managersByDirectReports.length; count++) {
+            if (managersByDirectReports[count] > 0) {
+                spanOfControl.add(String.format("Direct reports: %d, Managers: %d", count, managersByDirectReports[count]));
+            }
+        }
+
+        List<String> perLevel = new ArrayList<>();
+        for (int level = 0; level < levels; level++) {
+            BigDecimal payroll = payrollByLevel[level] == null ? BigDecimal.ZERO : payrollByLevel[level];
+            perLevel.add(String.format("Level: %d, Headcount: %d, Payroll: %s", level, headcountByLevel[level], payroll.toPlainString()));
+        }
+
+        return List.of(new ReportSection("Span of control", spanOfControl), new ReportSection("Levels", perLevel));
+    }
+}
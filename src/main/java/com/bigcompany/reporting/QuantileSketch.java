@@ -0,0 +1,209 @@
+package com.bigcompany.reporting;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable sketch answering approximate quantile queries over a stream of values in bounded memory,
+ * built from a hierarchy of compactors in the style of the KLL and MRL sketches.
+ * <p>
+ * Values are first collected at level 0. Whenever a level holds {@code capacity} items, it is sorted and every other
+ * item is promoted to the next level, where each item stands for twice as many values; the others are discarded.
+ * The promoted half alternates between the odd and the even positions from one compaction to the next, so the errors
+ * of successive compactions tend to cancel out. Two sketches are merged by concatenating their levels and compacting
+ * again, so a sketch of a union of streams can be built from the sketches of its parts, in any order.
+ * </p>
+ * <b>Error bound.</b> A compaction at level {@code h} shifts the rank of any value by at most {@code 2^h}, and as
+ * each one consumes at least {@code capacity - 1} items of weight {@code 2^h}, at most
+ * {@code n / ((capacity - 1) * 2^h)} of them can happen for {@code n} values. The rank of the value returned for
+ * a quantile is therefore off by at most {@code n * H / (capacity - 1)}, where {@code H} is the number of levels,
+ * about {@code log2(n / capacity) + 1}, whether the sketch was built by updates, merges or both.
+ * {@link #rankErrorBound()} returns the tighter bound accumulated by the compactions that actually took place;
+ * in practice the error is far below it.
+ * <p>
+ * <b>Memory.</b> Between operations a sketch retains fewer than {@code capacity} values per level, that is at most
+ * {@code capacity * H} values. With the default capacity of 256, a sketch of 10 million values retains at most about
+ * 4,400 values (35 KiB) with a guaranteed rank error below 7%, and a typical error well below 1%; a sketch of fewer
+ * than 256 values is exact.
+ * </p>
+ * Instances are not thread-safe.
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private double[][] items = new double[0][];
+    private int[] sizes = new int[0];
+    private boolean[] promoteOdd = new boolean[0];
+    private long count;
+    private long rankErrorBound;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of items a level holds before it is compacted; larger values trade memory for accuracy
+     * @throws IllegalArgumentException if the capacity is smaller than 2
+     */
+    public QuantileSketch(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException(String.format("Capacity must be at least 2, but was %d", capacity));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value; must not be NaN
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a quantile sketch");
+        }
+        add(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        if (sizes[0] >= capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds all values summarized by another sketch to this one. The other sketch is left unchanged.
+     *
+     * @param other the sketch to merge into this one
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int level = 0; level < other.sizes.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                add(level, other.items[level][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        rankErrorBound += other.rankErrorBound;
+        compress();
+    }
+
+    /**
+     * Returns an approximation of the value at the given quantile: a value from the stream whose rank differs from
+     * {@code q * count()} by at most {@link #rankErrorBound()}. The minimum and the maximum are exact.
+     *
+     * @param q the quantile, between 0 and 1 inclusive, e.g. 0.5 for the median
+     * @return the approximate value at the quantile
+     * @throws IllegalStateException if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException(String.format("Quantile must be between 0 and 1, but was %s", q));
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Cannot compute a quantile of an empty sketch");
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        int retained = retainedItems();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int index = 0;
+        for (int level = 0; level < sizes.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                values[index] = items[level][i];
+                weights[index] = 1L << level;
+                order[index] = index;
+                index++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double targetRank = q * count;
+        long cumulativeWeight = 0;
+        for (int i : order) {
+            cumulativeWeight += weights[i];
+            if (cumulativeWeight >= targetRank) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of values added to the sketch, directly or through merges
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the number of values currently stored by the sketch
+     */
+    public int retainedItems() {
+        return Arrays.stream(sizes).sum();
+    }
+
+    /**
+     * @return the largest possible difference between the rank of a value returned by {@link #quantile(double)} and
+     * the requested rank, as accumulated by the compactions performed so far
+     */
+    public long rankErrorBound() {
+        return rankErrorBound;
+    }
+
+    private void add(int level, double value) {
+        if (level >= sizes.length) {
+            int levels = sizes.length;
+            items = Arrays.copyOf(items, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            promoteOdd = Arrays.copyOf(promoteOdd, level + 1);
+            for (int i = levels; i <= level; i++) {
+                items[i] = new double[Math.min(capacity, 16)]; // Grown on demand, as most sketches of a hierarchy are small
+            }
+        }
+        if (sizes[level] == items[level].length) {
+            items[level] = Arrays.copyOf(items[level], items[level].length * 2);
+        }
+        items[level][sizes[level]++] = value;
+    }
+
+    private void compress() {
+        // Compacting a level can overfill the next one, so the levels are visited bottom-up
+        for (int level = 0; level < sizes.length; level++) {
+            if (sizes[level] >= capacity) {
+                compact(level);
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] buffer = items[level];
+        int size = sizes[level];
+        Arrays.sort(buffer, 0, size);
+
+        // An odd item out stays at this level, so the total weight is preserved exactly
+        int compacted = size - (size % 2);
+        int first = promoteOdd[level] ? 1 : 0;
+        promoteOdd[level] = !promoteOdd[level];
+        for (int i = first; i < compacted; i += 2) {
+            add(level + 1, buffer[i]);
+        }
+        if (compacted < size) {
+            buffer[0] = buffer[size - 1];
+        }
+        sizes[level] = size - compacted;
+        rankErrorBound += 1L << level;
+    }
+}
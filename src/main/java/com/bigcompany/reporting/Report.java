@@ -10,23 +10,38 @@ import java.util.stream.Collectors;
  * <p>
  * This class provides methods to encapsulate a list of {@link ReportEntry} and output a
  * formatted string that summarizes the contained entries according to their respective formats.
+ * A report may additionally carry {@link ReportSection}s with aggregate figures, which are printed after the entries.
  * </p>
  *
- * @param entries A list of {@link ReportEntry} objects that make up the report; should not be null
+ * @param entries  A list of {@link ReportEntry} objects that make up the report; should not be null
+ * @param sections A list of {@link ReportSection} objects printed after the entries; should not be null
  */
-public record Report(List<ReportEntry> entries) {
-    public Report(List<ReportEntry> entries) {
+public record Report(List<ReportEntry> entries, List<ReportSection> sections) {
+    public Report(List<ReportEntry> entries, List<ReportSection> sections) {
         this.entries = Collections.unmodifiableList(entries);
+        this.sections = Collections.unmodifiableList(sections);
+    }
+
+    public Report(List<ReportEntry> entries) {
+        this(entries, List.of());
     }
 
     /**
      * Returns a formatted string representation of the entire report using entries' own format methods.
+     * Sections, if any, follow the entries, separated from them and from each other by an empty line.
      *
      * @return Formatted report string.
      */
     public String format() {
-        return entries.stream()
+        String formattedEntries = entries.stream()
                 .map(ReportEntry::formatEntry) // Using method reference to use formatEntry of each ReportEntry
                 .collect(Collectors.joining("\n"));
+        if (sections.isEmpty()) {
+            return formattedEntries;
+        }
+        String formattedSections = sections.stream()
+                .map(ReportSection::format)
+                .collect(Collectors.joining("\n\n"));
+        return formattedEntries.isEmpty() ? formattedSections : formattedEntries + "\n\n" + formattedSections;
     }
 }
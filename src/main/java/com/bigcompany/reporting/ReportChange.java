@@ -0,0 +1,75 @@
+package com.bigcompany.reporting;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents a difference between the reports of two snapshots of an organization for a single employee and issue.
+ * <p>
+ * Each {@code ReportChange} includes:
+ * <ul>
+ *     <li><b>type</b> - Whether the issue is new, resolved or changed.</li>
+ *     <li><b>previous</b> - The {@link ReportEntry} of the older report; empty for new issues.</li>
+ *     <li><b>current</b> - The {@link ReportEntry} of the newer report; empty for resolved issues.</li>
+ * </ul>
+ * </p>
+ *
+ * @param type     the kind of change; should not be null
+ * @param previous the entry in the older report, present unless the issue is new
+ * @param current  the entry in the newer report, present unless the issue is resolved
+ */
+public record ReportChange(Type type, Optional<ReportEntry> previous, Optional<ReportEntry> current) {
+    private static final String CHANGED_FORMAT = "Changed: %s, Previously: %s";
+
+    public enum Type {
+        /** The issue is reported for the newer snapshot only. */
+        NEW,
+        /** The issue is reported for the older snapshot only. */
+        RESOLVED,
+        /** The issue is reported for both snapshots, but with a different severity. */
+        CHANGED
+    }
+
+    public ReportChange {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(previous);
+        Objects.requireNonNull(current);
+        if (previous.isEmpty() == (type != Type.NEW) || current.isEmpty() == (type != Type.RESOLVED)) {
+            throw new IllegalArgumentException(String.format("Entries do not match change type %s", type));
+        }
+    }
+
+    static ReportChange added(ReportEntry current) {
+        return new ReportChange(Type.NEW, Optional.empty(), Optional.of(current));
+    }
+
+    static ReportChange resolved(ReportEntry previous) {
+        return new ReportChange(Type.RESOLVED, Optional.of(previous), Optional.empty());
+    }
+
+    static ReportChange changed(ReportEntry previous, ReportEntry current) {
+        return new ReportChange(Type.CHANGED, Optional.of(previous), Optional.of(current));
+    }
+
+    /**
+     * Returns a formatted string representation of the change suitable for report output.
+     * New and resolved issues are printed as their report entry prefixed with the change type. Changed issues are
+     * printed as the current entry followed by the previous discrepancy, or the previous issue if there is no discrepancy.
+     *
+     * @return Formatted change string, never null.
+     */
+    public String formatChange() {
+        return switch (type) {
+            case NEW -> "New: " + current.orElseThrow().formatEntry();
+            case RESOLVED -> "Resolved: " + previous.orElseThrow().formatEntry();
+            case CHANGED -> {
+                ReportEntry previousEntry = previous.orElseThrow();
+                String previously = previousEntry.discrepancy()
+                        .map(BigDecimal::toPlainString)
+                        .orElse(previousEntry.message());
+                yield String.format(CHANGED_FORMAT, current.orElseThrow().formatEntry(), previously);
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.bigcompany.reporting;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Compares the report of an older snapshot of an organization with the report of a newer snapshot and emits a
+ * {@link ReportChange} for every issue that is new, resolved or changed.
+ * <p>
+ * Both reports must list their entries in employee ID order, as produced by {@link ReportGenerator}. Entries are
+ * aligned on employee ID and issue with a merge join, so the comparison takes time linear in the number of entries.
+ * The older report is read through an iterator, while the newer report is pushed to this consumer entry by entry,
+ * which allows it to be generated and compared without ever being collected. Changes are emitted in employee ID order
+ * as soon as they are known.
+ * </p>
+ * Once the newer report is complete, {@link #finish()} must be called to emit the issues resolved after its last entry.
+ */
+public class ReportDiff implements Consumer<ReportEntry> {
+    private static final int UNKNOWN_ISSUE_RANK = 5;
+    // Entries of a single employee are ordered by issue the same way ReportGenerator emits them
+    private static final Comparator<ReportEntry> ENTRY_ORDER = Comparator
+            .comparingInt((ReportEntry entry) -> entry.employee().id())
+            .thenComparingInt(entry -> issueRank(entry.message()))
+            .thenComparing(entry -> issueRank(entry.message()) == UNKNOWN_ISSUE_RANK ? entry.message() : "");
+
+    private final Iterator<ReportEntry> previousEntries;
+    private final Consumer<ReportChange> sink;
+    private ReportEntry pendingPrevious; // The first entry of the older report that has not been matched yet
+    private ReportEntry lastCurrent;
+
+    /**
+     * Creates a comparison against the given entries of the older report.
+     *
+     * @param previousEntries the entries of the older report in employee ID order
+     * @param sink            the consumer receiving changes in employee ID order
+     */
+    public ReportDiff(Iterator<ReportEntry> previousEntries, Consumer<ReportChange> sink) {
+        this.previousEntries = Objects.requireNonNull(previousEntries);
+        this.sink = Objects.requireNonNull(sink);
+        this.pendingPrevious = nextPrevious();
+    }
+
+    /**
+     * Compares two complete reports.
+     *
+     * @param previous the older report
+     * @param current  the newer report
+     * @param sink     the consumer receiving changes in employee ID order
+     */
+    public static void diff(Report previous, Report current, Consumer<ReportChange> sink) {
+        ReportDiff diff = new ReportDiff(previous.entries().iterator(), sink);
+        current.entries().forEach(diff);
+        diff.finish();
+    }
+
+    /**
+     * Accepts the next entry of the newer report.
+     *
+     * @param current the next entry of the newer report
+     * @throws IllegalArgumentException if the entry does not follow the previous one in employee ID order
+     */
+    @Override
+    public void accept(ReportEntry current) {
+        checkOrder(lastCurrent, current);
+        lastCurrent = current;
+
+        while (pendingPrevious != null) {
+            int comparison = ENTRY_ORDER.compare(pendingPrevious, current);
+            if (comparison > 0) {
+                break;
+            }
+            if (comparison == 0) {
+                if (!sameSeverity(pendingPrevious, current)) {
+                    sink.accept(ReportChange.changed(pendingPrevious, current));
+                }
+                pendingPrevious = nextPrevious();
+                return;
+            }
+            sink.accept(ReportChange.resolved(pendingPrevious));
+            pendingPrevious = nextPrevious();
+        }
+        sink.accept(ReportChange.added(current));
+    }
+
+    /**
+     * Emits the remaining entries of the older report as resolved issues.
+     */
+    public void finish() {
+        while (pendingPrevious != null) {
+            sink.accept(ReportChange.resolved(pendingPrevious));
+            pendingPrevious = nextPrevious();
+        }
+    }
+
+    private ReportEntry nextPrevious() {
+        if (!previousEntries.hasNext()) {
+            return null;
+        }
+        ReportEntry entry = previousEntries.next();
+        checkOrder(pendingPrevious, entry);
+        return entry;
+    }
+
+    private static void checkOrder(ReportEntry last, ReportEntry next) {
+        if (last != null && ENTRY_ORDER.compare(last, next) >= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Report entries must be in employee ID order, but employee %d follows employee %d.",
+                    next.employee().id(), last.employee().id()));
+        }
+    }
+
+    private static boolean sameSeverity(ReportEntry previous, ReportEntry current) {
+        if (!previous.message().equals(current.message())) {
+            return false;
+        }
+        if (previous.discrepancy().isEmpty() || current.discrepancy().isEmpty()) {
+            return previous.discrepancy().isEmpty() && current.discrepancy().isEmpty();
+        }
+        return previous.discrepancy().get().compareTo(current.discrepancy().get()) == 0;
+    }
+
+    /**
+     * Returns the position of an issue among the entries of a single employee. Long reporting lines and unusual spans
+     * of control are matched regardless of their excess, so a change in the number of levels or direct reports is
+     * reported as a changed issue.
+     */
+    private static int issueRank(String message) {
+        if (message.equals(ReportGenerator.UNDERPAID_MESSAGE)) {
+            return 0;
+        }
+        if (message.equals(ReportGenerator.OVERPAID_MESSAGE)) {
+            return 1;
+        }
+        if (message.startsWith(ReportGenerator.LONG_REPORTING_LINE_MESSAGE)) {
+            return 2;
+        }
+        if (message.startsWith(OrganizationAnalytics.TOO_MANY_DIRECT_REPORTS_MESSAGE)) {
+            return 3;
+        }
+        if (message.startsWith(OrganizationAnalytics.TOO_FEW_DIRECT_REPORTS_MESSAGE)) {
+            return 4;
+        }
+        return UNKNOWN_ISSUE_RANK;
+    }
+}
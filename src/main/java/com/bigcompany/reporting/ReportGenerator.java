@@ -6,11 +6,11 @@ import com.bigcompany.model.Employee;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Generates detailed reports concerning employee salary and management chain structure
@@ -27,9 +27,14 @@ public class ReportGenerator {
     private final EmployeeDataAccess dataAccess;
 
     // Constants to define the salary bounds for managers based on their subordinates' average salary
-    private static final BigDecimal MIN_SALARY_MULTIPLIER = new BigDecimal("1.20"); // Managers should earn at least 20% more than their subordinates
-    private static final BigDecimal MAX_SALARY_MULTIPLIER = new BigDecimal("1.50"); // Managers should earn no more than 50% more than their subordinates
-    private static final int MAX_ALLOWED_MANAGERS = 4; // Max allowed intermediaries between employee
+    static final BigDecimal MIN_SALARY_MULTIPLIER = new BigDecimal("1.20"); // Managers should earn at least 20% more than their subordinates
+    static final BigDecimal MAX_SALARY_MULTIPLIER = new BigDecimal("1.50"); // Managers should earn no more than 50% more than their subordinates
+    static final int MAX_ALLOWED_MANAGERS = 4; // Max allowed intermediaries between employee
+
+    // Issue messages of the report entries, in the order in which they are emitted for a single employee
+    static final String UNDERPAID_MESSAGE = "Earns less than expected";
+    static final String OVERPAID_MESSAGE = "Earns more than expected";
+    static final String LONG_REPORTING_LINE_MESSAGE = "Too many managers in reporting line";
 
     public ReportGenerator(EmployeeDataAccess dataAccess) {
         Objects.requireNonNull(dataAccess);
@@ -51,43 +56,143 @@ public class ReportGenerator {
      * @return a {@link Report} object containing all identified issues organized as report entries
      */
     public Report generateReport() {
-        List<Employee> allEmployees = dataAccess.getAllEmployees().stream()
-                .sorted(Comparator.comparing(Employee::id))
-                .toList();
+        List<ReportEntry> entries = new ArrayList<>();
+        generateReport(entries::add);
+        return new Report(entries);
+    }
+
+    /**
+     * Performs the same checks as {@link #generateReport()}, but hands every {@link ReportEntry} to the given sink
+     * as soon as it is found instead of collecting them into a {@link Report}.
+     * <p>
+     * Entries are emitted in the same order as in {@link #generateReport()}, which lets callers stream the report
+     * to its destination while the analysis is still running.
+     * </p>
+     *
+     * <p>
+     * The checks only ask the data access for a few figures per employee, by ID, and only materialize the
+     * {@link Employee}s that an entry is reported for, so stores that keep the organization off the heap can serve
+     * them without creating garbage for every employee.
+     * </p>
+     *
+     * @param sink the consumer receiving report entries in employee ID order; should not be null
+     */
+    public void generateReport(Consumer<ReportEntry> sink) {
+        Objects.requireNonNull(sink);
+        dataAccess.streamIdsInOrder().forEach(id -> checkEmployee(id, sink));
+    }
 
+    /**
+     * Generates a {@link Report} like {@link #generateReport()} and collects span-of-control and per-level figures
+     * in the same pass over the employees. Managers with an unusual span of control are reported as additional
+     * entries, and the figures are added to the report as {@link ReportSection}s.
+     *
+     * @param analytics the accumulator collecting the figures; should not be null and should not have been used before
+     * @return a {@link Report} object containing all identified issues and the sections of the accumulator
+     */
+    public Report generateReport(OrganizationAnalytics analytics) {
         List<ReportEntry> entries = new ArrayList<>();
+        generateReport(entries::add, analytics);
+        return new Report(entries, analytics.sections());
+    }
+
+    /**
+     * Performs the same checks as {@link #generateReport(OrganizationAnalytics)}, handing every {@link ReportEntry}
+     * to the given sink as soon as it is found. The figures are available from the accumulator once this method returns.
+     *
+     * @param sink      the consumer receiving report entries in employee ID order; should not be null
+     * @param analytics the accumulator collecting the figures; should not be null
+     */
+    public void generateReport(Consumer<ReportEntry> sink, OrganizationAnalytics analytics) {
+        Objects.requireNonNull(sink);
+        Objects.requireNonNull(analytics);
+        dataAccess.idOrderedSpliterator().forEachRemaining(employee -> checkEmployee(employee, sink, analytics));
+    }
 
-        for (Employee employee : allEmployees) {
-            Set<Employee> subordinates = dataAccess.getSubordinates(employee);
-            if (!subordinates.isEmpty()) {
-                BigDecimal averageSalary = subordinates.stream()
-                        .map(Employee::salary)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-                        .divide(new BigDecimal(subordinates.size()), 2, RoundingMode.HALF_UP);
-
-                BigDecimal minRequiredSalary = averageSalary.multiply(MIN_SALARY_MULTIPLIER);
-                BigDecimal maxAllowedSalary = averageSalary.multiply(MAX_SALARY_MULTIPLIER);
-
-                if (employee.salary().compareTo(minRequiredSalary) < 0) {
-                    BigDecimal discrepancy = minRequiredSalary.subtract(employee.salary());
-                    entries.add(new ReportEntry(employee, "Earns less than expected", Optional.of(discrepancy)));
-                }
-
-                if (employee.salary().compareTo(maxAllowedSalary) > 0) {
-                    BigDecimal discrepancy = employee.salary().subtract(maxAllowedSalary);
-                    entries.add(new ReportEntry(employee, "Earns more than expected", Optional.of(discrepancy)));
-                }
-            }
-
-            var reportingLineLength = dataAccess.getManagers(employee).size();
-
-            if (dataAccess.getManagers(employee).size() > MAX_ALLOWED_MANAGERS) {
-                int excess = reportingLineLength - MAX_ALLOWED_MANAGERS;
-                String message = String.format("Too many managers in reporting line by %d levels", excess);
-                entries.add(new ReportEntry(employee, message, Optional.empty()));
-            }
+    /**
+     * Performs all checks of a single employee and hands the resulting entries to the sink.
+     *
+     * @param analytics the accumulator to record the employee in, or {@code null}
+     * @return the number of managers in the employee's reporting line
+     */
+    int checkEmployee(Employee employee, Consumer<ReportEntry> sink, OrganizationAnalytics analytics) {
+        Set<Employee> subordinates = dataAccess.getSubordinates(employee);
+        if (!subordinates.isEmpty()) {
+            checkSalary(employee, employee.id(), employee.salary(), averageSalary(subordinates), sink);
         }
 
-        return new Report(entries);
+        var reportingLineLength = dataAccess.getManagers(employee).size();
+        checkReportingLine(employee, employee.id(), reportingLineLength, sink);
+
+        if (analytics != null) {
+            analytics.record(employee, subordinates.size(), reportingLineLength, sink);
+        }
+        return reportingLineLength;
+    }
+
+    /**
+     * Performs the same checks as {@link #checkEmployee(Employee, Consumer, OrganizationAnalytics)} through the
+     * primitives of the data access.
+     */
+    private void checkEmployee(int id, Consumer<ReportEntry> sink) {
+        int subordinateCount = dataAccess.directReportCount(id);
+        if (subordinateCount > 0) {
+            BigDecimal averageSalary = averageSalary(dataAccess.directReportSalarySum(id), subordinateCount);
+            checkSalary(null, id, dataAccess.salaryOf(id), averageSalary, sink);
+        }
+        checkReportingLine(null, id, dataAccess.reportingLineLength(id), sink);
+    }
+
+    /**
+     * Reports the employee if the salary is outside the band defined by the average salary of the subordinates.
+     *
+     * @param employee the employee, or {@code null} to look it up by ID if an entry is reported
+     */
+    private void checkSalary(Employee employee, int id, BigDecimal salary, BigDecimal averageSalary,
+                             Consumer<ReportEntry> sink) {
+        BigDecimal minRequiredSalary = averageSalary.multiply(MIN_SALARY_MULTIPLIER);
+        BigDecimal maxAllowedSalary = averageSalary.multiply(MAX_SALARY_MULTIPLIER);
+
+        if (salary.compareTo(minRequiredSalary) < 0) {
+            BigDecimal discrepancy = minRequiredSalary.subtract(salary);
+            employee = employee != null ? employee : dataAccess.getById(id);
+            sink.accept(new ReportEntry(employee, UNDERPAID_MESSAGE, Optional.of(discrepancy)));
+        }
+
+        if (salary.compareTo(maxAllowedSalary) > 0) {
+            BigDecimal discrepancy = salary.subtract(maxAllowedSalary);
+            employee = employee != null ? employee : dataAccess.getById(id);
+            sink.accept(new ReportEntry(employee, OVERPAID_MESSAGE, Optional.of(discrepancy)));
+        }
+    }
+
+    /**
+     * Reports the employee if the reporting line is longer than allowed.
+     *
+     * @param employee the employee, or {@code null} to look it up by ID if an entry is reported
+     */
+    private void checkReportingLine(Employee employee, int id, int reportingLineLength, Consumer<ReportEntry> sink) {
+        if (reportingLineLength > MAX_ALLOWED_MANAGERS) {
+            int excess = reportingLineLength - MAX_ALLOWED_MANAGERS;
+            String message = String.format("%s by %d levels", LONG_REPORTING_LINE_MESSAGE, excess);
+            employee = employee != null ? employee : dataAccess.getById(id);
+            sink.accept(new ReportEntry(employee, message, Optional.empty()));
+        }
+    }
+
+    /**
+     * Calculates the average salary of the given subordinates, rounded half-up to two decimal places.
+     *
+     * @param subordinates a non-empty set of subordinates
+     * @return the average salary of the subordinates
+     */
+    static BigDecimal averageSalary(Set<Employee> subordinates) {
+        return averageSalary(subordinates.stream()
+                .map(Employee::salary)
+                .reduce(BigDecimal.ZERO, BigDecimal::add), subordinates.size());
+    }
+
+    private static BigDecimal averageSalary(BigDecimal salarySum, int subordinateCount) {
+        return salarySum.divide(new BigDecimal(subordinateCount), 2, RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,29 @@
+package com.bigcompany.reporting;
+
+import java.util.List;
+
+/**
+ * Represents a titled block of aggregate figures appended to a report after its entries, such as a histogram or
+ * a per-level breakdown of the organization.
+ *
+ * @param title the title of the section; should not be null
+ * @param lines the formatted lines of the section, in display order; should not be null
+ */
+public record ReportSection(String title, List<String> lines) {
+    public ReportSection(String title, List<String> lines) {
+        this.title = title;
+        this.lines = List.copyOf(lines);
+    }
+
+    /**
+     * Returns a formatted string representation of the section: the title followed by a colon, then one indented
+     * line per figure.
+     *
+     * @return Formatted section string.
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder(title).append(':');
+        lines.forEach(line -> builder.append("\n  ").append(line));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bigcompany.reporting;
+
+/**
+ * Evaluates the salary band of many managers at once over primitive fixed-point arrays.
+ * <p>
+ * For every index {@code i} a kernel compares {@code salaries[i]} against {@code averages[i]} multiplied by the lower
+ * and upper salary multipliers. Multipliers are given as an unscaled value and a scale factor ({@code 10^scale}), and
+ * the salary is multiplied by the scale factor before the comparison, so the comparison is exact and matches the
+ * {@link java.math.BigDecimal} comparison done by {@link ReportGenerator}. Callers are responsible for choosing values
+ * for which none of the products overflow a {@code long}.
+ * </p>
+ * <p>
+ * A kernel writes, for every index:
+ * <ul>
+ *     <li><b>underpaid</b> - whether {@code salary * minScaleFactor < average * minMultiplier}.</li>
+ *     <li><b>overpaid</b> - whether {@code salary * maxScaleFactor > average * maxMultiplier}.</li>
+ *     <li><b>discrepancies</b> - the amount of the violation at the scale of the violated bound, or {@code 0} if none.</li>
+ * </ul>
+ * </p>
+ */
+interface SalaryBandKernel {
+
+    /**
+     * Evaluates the salary band for all indices of the given arrays.
+     *
+     * @param salaries       the manager salaries in cents
+     * @param averages       the average salaries of the managers' subordinates in cents, parallel to {@code salaries}
+     * @param minMultiplier  the unscaled value of the lower bound multiplier
+     * @param minScaleFactor {@code 10^scale} of the lower bound multiplier
+     * @param maxMultiplier  the unscaled value of the upper bound multiplier
+     * @param maxScaleFactor {@code 10^scale} of the upper bound multiplier
+     * @param underpaid      the output mask of managers earning less than the lower bound
+     * @param overpaid       the output mask of managers earning more than the upper bound
+     * @param discrepancies  the output amounts of the violations
+     */
+    void evaluate(long[] salaries, long[] averages,
+                  long minMultiplier, long minScaleFactor,
+                  long maxMultiplier, long maxScaleFactor,
+                  boolean[] underpaid, boolean[] overpaid, long[] discrepancies);
+
+    /**
+     * Returns the fastest kernel available in the running JVM.
+     * <p>
+     * The SIMD kernel requires the incubating Vector API, which is only available when the JVM is started with
+     * {@code --add-modules jdk.incubator.vector}. Without it the scalar kernel is used.
+     * </p>
+     *
+     * @return the vectorized kernel if the Vector API is available, the scalar kernel otherwise
+     */
+    static SalaryBandKernel preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorSalaryBandKernel();
+            } catch (LinkageError e) {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new ScalarSalaryBandKernel();
+    }
+}
@@ -0,0 +1,42 @@
+package com.bigcompany.reporting;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Represents one combination of report thresholds to be evaluated by the {@link SalaryBandSimulator}.
+ * <p>
+ * Each {@code SalaryBandScenario} contains:
+ * <ul>
+ *     <li><b>minSalaryMultiplier</b> - Managers earning less than this multiple of their subordinates' average salary are underpaid.</li>
+ *     <li><b>maxSalaryMultiplier</b> - Managers earning more than this multiple of their subordinates' average salary are overpaid.</li>
+ *     <li><b>maxAllowedManagers</b> - Employees with more managers than this in their reporting line have a reporting line that is too long.</li>
+ * </ul>
+ * </p>
+ *
+ * @param minSalaryMultiplier the lower salary bound multiplier; should be non-null, non-negative and not greater than the upper one
+ * @param maxSalaryMultiplier the upper salary bound multiplier; should be non-null and non-negative
+ * @param maxAllowedManagers  the maximum allowed number of managers in a reporting line; should be non-negative
+ */
+public record SalaryBandScenario(BigDecimal minSalaryMultiplier, BigDecimal maxSalaryMultiplier, int maxAllowedManagers) {
+
+    /**
+     * The thresholds currently applied by {@link ReportGenerator}.
+     */
+    public static final SalaryBandScenario DEFAULT = new SalaryBandScenario(
+            ReportGenerator.MIN_SALARY_MULTIPLIER, ReportGenerator.MAX_SALARY_MULTIPLIER, ReportGenerator.MAX_ALLOWED_MANAGERS);
+
+    public SalaryBandScenario {
+        Objects.requireNonNull(minSalaryMultiplier);
+        Objects.requireNonNull(maxSalaryMultiplier);
+        if (minSalaryMultiplier.signum() < 0 || minSalaryMultiplier.compareTo(maxSalaryMultiplier) > 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Salary multipliers must satisfy 0 <= min <= max. Found min: %s, max: %s.",
+                    minSalaryMultiplier, maxSalaryMultiplier));
+        }
+        if (maxAllowedManagers < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Max allowed managers cannot be negative. Found: %d.", maxAllowedManagers));
+        }
+    }
+}
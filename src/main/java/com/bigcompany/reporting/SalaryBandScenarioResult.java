@@ -0,0 +1,28 @@
+package com.bigcompany.reporting;
+
+import java.math.BigDecimal;
+
+/**
+ * Summarizes the violations a {@link ReportGenerator} would report for one {@link SalaryBandScenario}.
+ * <p>
+ * The totals are exact and use the same scale as the discrepancies of the corresponding {@link ReportEntry} objects,
+ * so they match the sum of the discrepancies a report generated with the scenario's thresholds would contain.
+ * </p>
+ *
+ * @param scenario                 the evaluated scenario
+ * @param underpaidManagers        the number of managers earning less than expected
+ * @param totalUnderpayment        the sum of the amounts by which those managers earn less than expected
+ * @param overpaidManagers         the number of managers earning more than expected
+ * @param totalOverpayment         the sum of the amounts by which those managers earn more than expected
+ * @param longReportingLines       the number of employees with too many managers in their reporting line
+ * @param totalExcessManagers      the sum of the number of managers exceeding the limit over all those employees
+ */
+public record SalaryBandScenarioResult(
+        SalaryBandScenario scenario,
+        int underpaidManagers,
+        BigDecimal totalUnderpayment,
+        int overpaidManagers,
+        BigDecimal totalOverpayment,
+        int longReportingLines,
+        long totalExcessManagers) {
+}
@@ -0,0 +1,202 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.model.Employee;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Evaluates what-if threshold combinations against an organization without regenerating the report for each of them.
+ * <p>
+ * On construction the simulator walks the organization once and precomputes, for every manager, their salary and the
+ * average salary of their direct subordinates, and, for every employee, the length of their reporting line. Salaries and
+ * averages are kept as exact fixed-point {@code long} values in primitive arrays, and reporting line lengths are reduced
+ * to a suffix-summed histogram. Evaluating a {@link SalaryBandScenario} is then a tight loop over the manager arrays plus
+ * a constant-time lookup for the reporting line limit, with results identical to those of {@link ReportGenerator}.
+ * The salary band comparison is delegated to the {@link SalaryBandKernel#preferred() preferred} {@link SalaryBandKernel},
+ * which uses SIMD instructions when the Vector API is available.
+ * </p>
+ * <p>
+ * Assumptions:
+ * <ul>
+ *     <li>Salaries have at most two decimal places.</li>
+ *     <li>Salary multipliers have at most {@value #MAX_MULTIPLIER_SCALE} decimal places.</li>
+ * </ul>
+ * </p>
+ */
+public class SalaryBandSimulator {
+    static final int SALARY_SCALE = 2; // Salaries and subordinate averages are stored in cents
+    static final int MAX_MULTIPLIER_SCALE = 6;
+
+    private final SalaryBandKernel kernel;
+    private final long[] managerSalaries;
+    private final long[] averageSalaries;
+    private final long maxSalaryMagnitude;
+    // Number of employees, and sum of their reporting line lengths, having a reporting line at least as long as the index
+    private final int[] employeesWithReportingLineAtLeast;
+    private final long[] reportingLineLengthSumAtLeast;
+
+    /**
+     * Constructs a simulator and precomputes the salary and reporting line data of the given organization.
+     *
+     * @param dataAccess the source of the employee data; should not be null
+     * @throws IllegalArgumentException if a salary has more than two decimal places
+     */
+    public SalaryBandSimulator(EmployeeDataAccess dataAccess) {
+        this(dataAccess, SalaryBandKernel.preferred());
+    }
+
+    SalaryBandSimulator(EmployeeDataAccess dataAccess, SalaryBandKernel kernel) {
+        Objects.requireNonNull(dataAccess);
+        Objects.requireNonNull(kernel);
+        this.kernel = kernel;
+        Spliterator<Employee> allEmployees = dataAccess.idOrderedSpliterator();
+        long knownSize = allEmployees.getExactSizeIfKnown();
+
+        long[] salaries = new long[knownSize < 0 ? 16 : (int) knownSize];
+        long[] averages = new long[salaries.length];
+        int[] reportingLineLengthCounts = new int[1];
+        int managers = 0;
+        long maxMagnitude = 0;
+
+        for (Iterator<Employee> employees = Spliterators.iterator(allEmployees); employees.hasNext(); ) {
+            Employee employee = employees.next();
+            Set<Employee> subordinates = dataAccess.getSubordinates(employee);
+            if (!subordinates.isEmpty()) {
+                if (managers == salaries.length) {
+                    salaries = Arrays.copyOf(salaries, Math.max(16, managers * 2));
+                    averages = Arrays.copyOf(averages, salaries.length);
+                }
+                salaries[managers] = toFixedPoint(employee.salary());
+                averages[managers] = toFixedPoint(ReportGenerator.averageSalary(subordinates));
+                maxMagnitude = Math.max(maxMagnitude, Math.max(Math.abs(salaries[managers]), Math.abs(averages[managers])));
+                managers++;
+            }
+
+            int reportingLineLength = dataAccess.getManagers(employee).size();
+            if (reportingLineLength >= reportingLineLengthCounts.length) {
+                reportingLineLengthCounts = Arrays.copyOf(reportingLineLengthCounts, reportingLineLength + 1);
+            }
+            reportingLineLengthCounts[reportingLineLength]++;
+        }
+
+        this.managerSalaries = Arrays.copyOf(salaries, managers);
+        this.averageSalaries = Arrays.copyOf(averages, managers);
+        this.maxSalaryMagnitude = maxMagnitude;
+
+        int lengths = reportingLineLengthCounts.length;
+        this.employeesWithReportingLineAtLeast = new int[lengths + 1];
+        this.reportingLineLengthSumAtLeast = new long[lengths + 1];
+        for (int length = lengths - 1; length >= 0; length--) {
+            int count = reportingLineLengthCounts[length];
+            employeesWithReportingLineAtLeast[length] = employeesWithReportingLineAtLeast[length + 1] + count;
+            reportingLineLengthSumAtLeast[length] = reportingLineLengthSumAtLeast[length + 1] + (long) count * length;
+        }
+    }
+
+    /**
+     * Evaluates a single scenario.
+     *
+     * @param scenario the thresholds to evaluate; should not be null
+     * @return the number and total amount of violations the report would contain under the given thresholds
+     * @throws IllegalArgumentException if a multiplier has too many decimal places or is too large to evaluate exactly
+     */
+    public SalaryBandScenarioResult evaluate(SalaryBandScenario scenario) {
+        Objects.requireNonNull(scenario);
+        FixedPointMultiplier min = FixedPointMultiplier.of(scenario.minSalaryMultiplier(), maxSalaryMagnitude);
+        FixedPointMultiplier max = FixedPointMultiplier.of(scenario.maxSalaryMultiplier(), maxSalaryMagnitude);
+
+        int managers = managerSalaries.length;
+        boolean[] underpaidMask = new boolean[managers];
+        boolean[] overpaidMask = new boolean[managers];
+        long[] discrepancies = new long[managers];
+        kernel.evaluate(managerSalaries, averageSalaries,
+                min.unscaledValue(), min.scaleFactor(), max.unscaledValue(), max.scaleFactor(),
+                underpaidMask, overpaidMask, discrepancies);
+
+        int underpaid = 0;
+        long underpayment = 0;
+        int overpaid = 0;
+        long overpayment = 0;
+        for (int i = 0; i < managers; i++) {
+            if (underpaidMask[i]) {
+                underpaid++;
+                underpayment = Math.addExact(underpayment, discrepancies[i]);
+            } else if (overpaidMask[i]) {
+                overpaid++;
+                overpayment = Math.addExact(overpayment, discrepancies[i]);
+            }
+        }
+
+        int firstViolatingLength = scenario.maxAllowedManagers() + 1;
+        int longReportingLines = 0;
+        long excessManagers = 0;
+        if (firstViolatingLength < employeesWithReportingLineAtLeast.length) {
+            longReportingLines = employeesWithReportingLineAtLeast[firstViolatingLength];
+            excessManagers = reportingLineLengthSumAtLeast[firstViolatingLength]
+                    - (long) longReportingLines * scenario.maxAllowedManagers();
+        }
+
+        return new SalaryBandScenarioResult(
+                scenario,
+                underpaid,
+                BigDecimal.valueOf(underpayment, SALARY_SCALE + min.scale()),
+                overpaid,
+                BigDecimal.valueOf(overpayment, SALARY_SCALE + max.scale()),
+                longReportingLines,
+                excessManagers);
+    }
+
+    /**
+     * Evaluates a batch of scenarios. Scenarios are independent of each other and are evaluated in parallel.
+     *
+     * @param scenarios the thresholds to evaluate; should not be null
+     * @return the results in the same order as the given scenarios
+     */
+    public List<SalaryBandScenarioResult> evaluateAll(List<SalaryBandScenario> scenarios) {
+        Objects.requireNonNull(scenarios);
+        return scenarios.parallelStream()
+                .map(this::evaluate)
+                .toList();
+    }
+
+    private static long toFixedPoint(BigDecimal amount) {
+        try {
+            return amount.setScale(SALARY_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    String.format("Salary %s cannot be represented with %d decimal places.", amount, SALARY_SCALE), e);
+        }
+    }
+
+    /**
+     * A salary multiplier split into its unscaled value and scale, validated so that multiplying any precomputed
+     * salary or average by either part cannot overflow a {@code long}.
+     */
+    private record FixedPointMultiplier(long unscaledValue, int scale, long scaleFactor) {
+
+        static FixedPointMultiplier of(BigDecimal multiplier, long maxSalaryMagnitude) {
+            BigDecimal normalized = multiplier.scale() < 0 ? multiplier.setScale(0) : multiplier;
+            if (normalized.scale() > MAX_MULTIPLIER_SCALE) {
+                throw new IllegalArgumentException(String.format(
+                        "Salary multiplier %s has more than %d decimal places.", multiplier, MAX_MULTIPLIER_SCALE));
+            }
+            try {
+                long unscaledValue = normalized.unscaledValue().longValueExact();
+                long scaleFactor = BigDecimal.TEN.pow(normalized.scale()).longValueExact();
+                Math.multiplyExact(maxSalaryMagnitude, Math.max(unscaledValue, scaleFactor));
+                return new FixedPointMultiplier(unscaledValue, normalized.scale(), scaleFactor);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(
+                        String.format("Salary multiplier %s is too large to be evaluated exactly.", multiplier), e);
+            }
+        }
+    }
+}
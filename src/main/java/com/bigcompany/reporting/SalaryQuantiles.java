@@ -0,0 +1,174 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.model.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Approximate salary quantiles per hierarchy level and per subtree of an organization, computed with
+ * {@link QuantileSketch}es in a single bottom-up traversal.
+ * <p>
+ * The hierarchy is traversed depth-first from every employee without a manager. When the traversal leaves an
+ * employee, the sketch of their subtree is complete and is merged into the sketch of their manager's subtree, so the
+ * sketch of any subtree is built from the merged sketches of its children rather than from its raw salaries.
+ * Salaries are also added to the sketch of their level, where the level of an employee is the number of managers above them.
+ * </p>
+ * Only the subtree sketches of the top levels are kept, since the organization has one subtree per employee; while
+ * traversing, at most one sketch per level of the current reporting line is alive in addition to those. Employees that
+ * cannot be reached from an employee without a manager, such as members of a cycle, are not included. Salaries are
+ * summarized as {@code double} values, which keep about 15 significant digits.
+ */
+public class SalaryQuantiles {
+    public static final int DEFAULT_RETAINED_LEVELS = 2; // The head of the organization and the heads of its departments
+
+    private final List<QuantileSketch> levels;
+    private final Map<Integer, Subtree> subtrees;
+
+    private record Subtree(Employee manager, int level, QuantileSketch sketch) {
+    }
+
+    private record Frame(Employee employee, Iterator<Employee> subordinates, QuantileSketch sketch) {
+    }
+
+    private SalaryQuantiles(List<QuantileSketch> levels, Map<Integer, Subtree> subtrees) {
+        this.levels = levels;
+        this.subtrees = subtrees;
+    }
+
+    /**
+     * Computes the sketches with the default capacity, keeping the subtree sketches of the top two levels.
+     *
+     * @param dataAccess the organization to summarize; should not be null
+     * @return the computed quantiles
+     */
+    public static SalaryQuantiles compute(EmployeeDataAccess dataAccess) {
+        return compute(dataAccess, DEFAULT_RETAINED_LEVELS, QuantileSketch.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Computes the sketches of all levels and of the subtrees rooted in the given number of top levels.
+     *
+     * @param dataAccess     the organization to summarize; should not be null
+     * @param retainedLevels the number of top levels whose subtree sketches are kept
+     * @param capacity       the capacity of every sketch, see {@link QuantileSketch#QuantileSketch(int)}
+     * @return the computed quantiles
+     */
+    public static SalaryQuantiles compute(EmployeeDataAccess dataAccess, int retainedLevels, int capacity) {
+        Objects.requireNonNull(dataAccess);
+        List<QuantileSketch> levels = new ArrayList<>();
+        Map<Integer, Subtree> subtrees = new TreeMap<>();
+        Deque<Frame> reportingLine = new ArrayDeque<>();
+
+        dataAccess.idOrderedSpliterator().forEachRemaining(root -> {
+            if (root.managerId().isPresent()) {
+                return;
+            }
+            reportingLine.push(enter(root, dataAccess, levels, 0, capacity));
+            while (!reportingLine.isEmpty()) {
+                Frame frame = reportingLine.peek();
+                int level = reportingLine.size() - 1;
+                if (frame.subordinates().hasNext()) {
+                    Employee subordinate = frame.subordinates().next();
+                    if (level + 1 >= retainedLevels && dataAccess.getSubordinates(subordinate).isEmpty()) {
+                        // Most employees manage nobody, so their salary goes straight into their manager's sketch
+                        double salary = subordinate.salary().doubleValue();
+                        frame.sketch().update(salary);
+                        levelSketch(levels, level + 1, capacity).update(salary);
+                    } else {
+                        reportingLine.push(enter(subordinate, dataAccess, levels, level + 1, capacity));
+                    }
+                    continue;
+                }
+                reportingLine.pop();
+                if (level < retainedLevels) {
+                    subtrees.put(frame.employee().id(), new Subtree(frame.employee(), level, frame.sketch()));
+                }
+                if (!reportingLine.isEmpty()) {
+                    reportingLine.peek().sketch().merge(frame.sketch());
+                }
+            }
+        });
+        return new SalaryQuantiles(levels, subtrees);
+    }
+
+    private static Frame enter(Employee employee, EmployeeDataAccess dataAccess, List<QuantileSketch> levels,
+                               int level, int capacity) {
+        double salary = employee.salary().doubleValue();
+        QuantileSketch sketch = new QuantileSketch(capacity);
+        sketch.update(salary);
+        levelSketch(levels, level, capacity).update(salary);
+        return new Frame(employee, dataAccess.getSubordinates(employee).iterator(), sketch);
+    }
+
+    private static QuantileSketch levelSketch(List<QuantileSketch> levels, int level, int capacity) {
+        while (levels.size() <= level) {
+            levels.add(new QuantileSketch(capacity));
+        }
+        return levels.get(level);
+    }
+
+    /**
+     * @return the number of levels of the organization
+     */
+    public int levels() {
+        return levels.size();
+    }
+
+    /**
+     * Returns the sketch of the salaries of all employees at the given level.
+     *
+     * @param level the number of managers above the employees
+     * @return the sketch, or empty if the organization has fewer levels
+     */
+    public Optional<QuantileSketch> level(int level) {
+        return level >= 0 && level < levels.size() ? Optional.of(levels.get(level)) : Optional.empty();
+    }
+
+    /**
+     * Returns the sketch of the salaries of the given employee and everyone reporting to them, directly or indirectly.
+     *
+     * @param employeeId the ID of the head of the subtree
+     * @return the sketch, or empty if the employee is not in one of the retained levels
+     */
+    public Optional<QuantileSketch> subtree(int employeeId) {
+        return Optional.ofNullable(subtrees.get(employeeId)).map(Subtree::sketch);
+    }
+
+    /**
+     * Returns the median and 90th percentile salaries per level and per retained subtree as report sections.
+     *
+     * @return a section with one line per level and a section with one line per retained subtree
+     */
+    public List<ReportSection> sections() {
+        List<String> perLevel = new ArrayList<>();
+        for (int level = 0; level < levels.size(); level++) {
+            perLevel.add(String.format("Level: %d, %s", level, formatQuantiles(levels.get(level))));
+        }
+        List<String> perSubtree = new ArrayList<>();
+        subtrees.values().forEach(subtree -> perSubtree.add(String.format("Employee ID: %s, Name: %s %s, Level: %d, %s",
+                subtree.manager().id(), subtree.manager().firstName(), subtree.manager().lastName(), subtree.level(),
+                formatQuantiles(subtree.sketch()))));
+        return List.of(new ReportSection("Salary quantiles per level", perLevel),
+                new ReportSection("Salary quantiles per subtree", perSubtree));
+    }
+
+    private static String formatQuantiles(QuantileSketch sketch) {
+        return String.format("Employees: %d, Median: %s, P90: %s",
+                sketch.count(), formatSalary(sketch.quantile(0.5)), formatSalary(sketch.quantile(0.9)));
+    }
+
+    private static String formatSalary(double salary) {
+        return BigDecimal.valueOf(salary).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
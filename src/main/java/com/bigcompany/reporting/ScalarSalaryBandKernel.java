@@ -0,0 +1,42 @@
+package com.bigcompany.reporting;
+
+/**
+ * A portable {@link SalaryBandKernel} evaluating one manager at a time.
+ */
+class ScalarSalaryBandKernel implements SalaryBandKernel {
+
+    @Override
+    public void evaluate(long[] salaries, long[] averages,
+                         long minMultiplier, long minScaleFactor,
+                         long maxMultiplier, long maxScaleFactor,
+                         boolean[] underpaid, boolean[] overpaid, long[] discrepancies) {
+        evaluateRange(0, salaries.length, salaries, averages,
+                minMultiplier, minScaleFactor, maxMultiplier, maxScaleFactor,
+                underpaid, overpaid, discrepancies);
+    }
+
+    /**
+     * Evaluates the indices from {@code from} (inclusive) to {@code to} (exclusive); used for the tail of vectorized loops.
+     */
+    static void evaluateRange(int from, int to, long[] salaries, long[] averages,
+                              long minMultiplier, long minScaleFactor,
+                              long maxMultiplier, long maxScaleFactor,
+                              boolean[] underpaid, boolean[] overpaid, long[] discrepancies) {
+        for (int i = from; i < to; i++) {
+            long salaryAtMinScale = salaries[i] * minScaleFactor;
+            long minRequiredSalary = averages[i] * minMultiplier;
+            long salaryAtMaxScale = salaries[i] * maxScaleFactor;
+            long maxAllowedSalary = averages[i] * maxMultiplier;
+
+            underpaid[i] = salaryAtMinScale < minRequiredSalary;
+            overpaid[i] = salaryAtMaxScale > maxAllowedSalary;
+            if (underpaid[i]) {
+                discrepancies[i] = minRequiredSalary - salaryAtMinScale;
+            } else if (overpaid[i]) {
+                discrepancies[i] = salaryAtMaxScale - maxAllowedSalary;
+            } else {
+                discrepancies[i] = 0;
+            }
+        }
+    }
+}
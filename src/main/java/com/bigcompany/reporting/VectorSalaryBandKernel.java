@@ -0,0 +1,53 @@
+package com.bigcompany.reporting;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link SalaryBandKernel} using the incubating Vector API to evaluate as many managers per instruction as the
+ * preferred vector shape of the platform allows. The remainder that does not fill a whole vector is evaluated by
+ * {@link ScalarSalaryBandKernel}.
+ * <p>
+ * This class must only be loaded when the {@code jdk.incubator.vector} module is available; use
+ * {@link SalaryBandKernel#preferred()} to obtain a kernel.
+ * </p>
+ */
+class VectorSalaryBandKernel implements SalaryBandKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void evaluate(long[] salaries, long[] averages,
+                         long minMultiplier, long minScaleFactor,
+                         long maxMultiplier, long maxScaleFactor,
+                         boolean[] underpaid, boolean[] overpaid, long[] discrepancies) {
+        int upperBound = SPECIES.loopBound(salaries.length);
+        LongVector zero = LongVector.zero(SPECIES);
+
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            LongVector salary = LongVector.fromArray(SPECIES, salaries, i);
+            LongVector average = LongVector.fromArray(SPECIES, averages, i);
+
+            LongVector salaryAtMinScale = salary.mul(minScaleFactor);
+            LongVector minRequiredSalary = average.mul(minMultiplier);
+            LongVector salaryAtMaxScale = salary.mul(maxScaleFactor);
+            LongVector maxAllowedSalary = average.mul(maxMultiplier);
+
+            VectorMask<Long> under = salaryAtMinScale.compare(VectorOperators.LT, minRequiredSalary);
+            VectorMask<Long> over = salaryAtMaxScale.compare(VectorOperators.GT, maxAllowedSalary);
+
+            under.intoArray(underpaid, i);
+            over.intoArray(overpaid, i);
+            // Blend the upper bound first so that, like the scalar kernel, a lower bound violation takes precedence
+            zero.blend(salaryAtMaxScale.sub(maxAllowedSalary), over)
+                    .blend(minRequiredSalary.sub(salaryAtMinScale), under)
+                    .intoArray(discrepancies, i);
+        }
+
+        ScalarSalaryBandKernel.evaluateRange(i, salaries.length, salaries, averages,
+                minMultiplier, minScaleFactor, maxMultiplier, maxScaleFactor,
+                underpaid, overpaid, discrepancies);
+    }
+}
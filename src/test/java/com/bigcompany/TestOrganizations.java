@@ -0,0 +1,82 @@
+package com.bigcompany;
+
+import com.bigcompany.model.Employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates the random organizations used by tests and benchmarks. Employees are generated in ID order starting at 1,
+ * with salaries uniform between 30,000 and 200,000, and the same seed always yields the same organization.
+ */
+public final class TestOrganizations {
+
+    private TestOrganizations() {
+    }
+
+    /**
+     * Generates an organization where every employee reports to a random earlier employee, which yields reporting
+     * lines deep enough to be reported. Every employee has a unique name.
+     *
+     * @param size  the number of employees
+     * @param roots the number of employees without a manager, which are the first ones
+     * @param seed  the seed of the random generator
+     * @return a modifiable list of the employees in ID order
+     */
+    public static List<Employee> random(int size, int roots, long seed) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            employees.add(employee(id, id <= roots ? 0 : id - 1, "First" + id, "Last" + id, random));
+        }
+        return employees;
+    }
+
+    /**
+     * Generates an organization with a single root where every employee reports to a random employee among the first
+     * eighth of the earlier ones, which yields a shallow, wide hierarchy similar to real organizations. Names repeat
+     * like in real data. Employees are generated as the stream is consumed, so organizations larger than the heap can
+     * be written to a file or a store.
+     *
+     * @param size the number of employees
+     * @param seed the seed of the random generator
+     * @return a sequential stream of the employees in ID order
+     */
+    public static Stream<Employee> wide(int size, long seed) {
+        Random random = new Random(seed);
+        return IntStream.rangeClosed(1, size).mapToObj(id -> employee(id, id == 1 ? 0 : Math.max(1, id / 8),
+                "First" + (id % 5000), "Last" + (id % 20000), random));
+    }
+
+    /**
+     * Writes employees to a CSV file with the standard header, one employee at a time.
+     *
+     * @param file      the file to write
+     * @param employees the employees to write, e.g. from {@link #wide(int, long)}
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCsv(Path file, Stream<Employee> employees) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            for (Employee employee : (Iterable<Employee>) employees::iterator) {
+                writer.write(employee.id() + "," + employee.firstName() + "," + employee.lastName() + ","
+                        + employee.salary().toPlainString() + ","
+                        + employee.managerId().map(String::valueOf).orElse("") + "\n");
+            }
+        }
+    }
+
+    private static Employee employee(int id, int managers, String firstName, String lastName, Random random) {
+        Optional<Integer> managerId = managers == 0 ? Optional.empty() : Optional.of(1 + random.nextInt(managers));
+        return new Employee(id, firstName, lastName, BigDecimal.valueOf(random.nextInt(30_000, 200_000)), managerId);
+    }
+}
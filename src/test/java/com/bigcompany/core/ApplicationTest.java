@@ -4,39 +4,50 @@ import com.bigcompany.model.Employee;
 import com.bigcompany.reader.EmployeeInfoFileReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ApplicationTest {
+    private final List<Employee> organization = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+            new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
+            new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+            new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)),
+            new Employee(5, "Jane", "Doe", new BigDecimal("177700"), Optional.of(3)),
+            new Employee(6, "Ella", "Fitzgerald", new BigDecimal("148000"), Optional.of(5)),
+            new Employee(7, "Mason", "Alexander", new BigDecimal("120000"), Optional.of(6)),
+            new Employee(8, "Mason", "Alexander", new BigDecimal("100000"), Optional.of(7))
+    );
+    // Two snapshots of a smaller organization, read from "previous.csv" and "current.csv"
+    private final List<Employee> previousSnapshot = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+            new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
+            new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+            new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2))
+    );
+    private final List<Employee> currentSnapshot = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+            new Employee(2, "Subordinate", "One", new BigDecimal("100000"), Optional.of(1)),
+            new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+            new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)),
+            new Employee(5, "Deeper", "Subordinate", new BigDecimal("10000"), Optional.of(4))
+    );
 
     @Test
     @DisplayName("Ensure that reports are accurately generated when applicable")
     void testReportsGeneratedWhenExpected() {
-        List<Employee> mockEmployees = List.of(
-                new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
-                new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
-                new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
-                new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)),
-                new Employee(5, "Jane", "Doe", new BigDecimal("177700"), Optional.of(3)),
-                new Employee(6, "Ella", "Fitzgerald", new BigDecimal("148000"), Optional.of(5)),
-                new Employee(7, "Mason", "Alexander", new BigDecimal("120000"), Optional.of(6)),
-                new Employee(8, "Mason", "Alexander", new BigDecimal("100000"), Optional.of(7))
-        );
-
-        var testReader = new EmployeeInfoFileReader() {
-            @Override
-            public List<Employee> loadEmployeesFromFile(String filePath) {
-                return mockEmployees;
-            }
-        };
-
-        Application app = new Application(testReader);
+        Application app = new Application(readerOf(organization));
 
         ByteArrayOutputStream outContent = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outContent));
@@ -52,6 +63,55 @@ public class ApplicationTest {
         assertEquals(expectedOutput, outContent.toString().trim());
     }
 
+    @Test
+    @DisplayName("Ensure that analytics are printed after the report entries, followed by the salary quantiles")
+    void testAnalyticsPrintsSectionsAfterEntries() {
+        Application app = new Application(readerOf(organization));
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        app.processDataWithAnalytics("path/to/fakefile.csv");
+
+        String expectedOutput =
+                """
+                        Employee ID: 1, Name: Manager Boss, Issue: Earns more than expected, Discrepancy: 839125.0000
+                        Employee ID: 2, Name: Subordinate One, Issue: Earns less than expected, Discrepancy: 95500.0000
+                        Employee ID: 2, Name: Subordinate One, Issue: Too few direct reports by 1
+                        Employee ID: 3, Name: Subordinate Two, Issue: Too few direct reports by 1
+                        Employee ID: 5, Name: Jane Doe, Issue: Too few direct reports by 1
+                        Employee ID: 6, Name: Ella Fitzgerald, Issue: Too few direct reports by 1
+                        Employee ID: 7, Name: Mason Alexander, Issue: Too few direct reports by 1
+                        Employee ID: 8, Name: Mason Alexander, Issue: Too many managers in reporting line by 1 levels
+
+                        Span of control:
+                          Managers: 6, Average direct reports: 1.17
+                          Direct reports: 1, Managers: 5
+                          Direct reports: 2, Managers: 1
+
+                        Levels:
+                          Level: 0, Headcount: 1, Payroll: 1000000
+                          Level: 1, Headcount: 2, Payroll: 214500
+                          Level: 2, Headcount: 2, Payroll: 257700
+                          Level: 3, Headcount: 1, Payroll: 148000
+                          Level: 4, Headcount: 1, Payroll: 120000
+                          Level: 5, Headcount: 1, Payroll: 100000
+
+                        Salary quantiles per level:
+                          Level: 0, Employees: 1, Median: 1000000.00, P90: 1000000.00
+                          Level: 1, Employees: 2, Median: 500.00, P90: 214000.00
+                          Level: 2, Employees: 2, Median: 80000.00, P90: 177700.00
+                          Level: 3, Employees: 1, Median: 148000.00, P90: 148000.00
+                          Level: 4, Employees: 1, Median: 120000.00, P90: 120000.00
+                          Level: 5, Employees: 1, Median: 100000.00, P90: 100000.00
+
+                        Salary quantiles per subtree:
+                          Employee ID: 1, Name: Manager Boss, Level: 0, Employees: 8, Median: 120000.00, P90: 1000000.00
+                          Employee ID: 2, Name: Subordinate One, Level: 1, Employees: 2, Median: 500.00, P90: 80000.00
+                          Employee ID: 3, Name: Subordinate Two, Level: 1, Employees: 5, Median: 148000.00, P90: 214000.00""";
+        assertEquals(expectedOutput, outContent.toString().trim());
+    }
+
     @Test
     @DisplayName("Ensure no report is generated when all conditions are met")
     void testNoReportsGeneratedWhenAllConditionsAreMet() {
@@ -60,19 +120,158 @@ public class ApplicationTest {
                 new Employee(2, "NameTwo", "PeerTwo", new BigDecimal("50000"), Optional.empty())
         );
 
-        var testReader = new EmployeeInfoFileReader() {
+        Application app = new Application(readerOf(mockEmployees));
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        app.processData("path/to/fakefile.csv");
+        assertTrue(outContent.toString().trim().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ensure that pipelined processing prints the same report as sequential processing")
+    void testPipelinedOutputMatchesSequentialOutput() {
+        assertSameOutputAsSequential(organization, app -> app.processDataPipelined("path/to/fakefile.csv"));
+    }
+
+    @Test
+    @DisplayName("Ensure that pipelined processing handles inputs larger than the stage buffers")
+    void testPipelinedOutputMatchesSequentialOutputForLargeInput() {
+        List<Employee> chain = IntStream.rangeClosed(1, 3000)
+                .mapToObj(id -> new Employee(id, "Name" + id, "Surname" + id, new BigDecimal("50000"),
+                        id == 1 ? Optional.<Integer>empty() : Optional.of(id - 1)))
+                .toList();
+
+        assertSameOutputAsSequential(chain, app -> app.processDataPipelined("path/to/fakefile.csv"));
+    }
+
+    @Test
+    @DisplayName("Ensure that a failure while reading is propagated by pipelined processing")
+    void testPipelinedProcessingPropagatesReaderFailure() {
+        var failingReader = new EmployeeInfoFileReader() {
             @Override
             public List<Employee> loadEmployeesFromFile(String filePath) {
-                return mockEmployees;
+                throw new IllegalArgumentException("Malformed input");
             }
         };
 
-        Application app = new Application(testReader);
+        Application app = new Application(failingReader);
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> app.processDataPipelined("path/to/fakefile.csv"));
+        assertEquals("Malformed input", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Ensure that processing through a disk-backed store prints the same report as sequential processing")
+    void testDiskStoreOutputMatchesSequentialOutput(@TempDir Path storeDirectory) {
+        assertSameOutputAsSequential(organization,
+                app -> app.processDataWithDiskStore("path/to/fakefile.csv", storeDirectory, 1));
+    }
+
+    @Test
+    @DisplayName("Ensure that no store is left behind when reading fails partway through")
+    void testDiskStoreAbortedOnReaderFailure(@TempDir Path storeDirectory) {
+        var failingReader = new EmployeeInfoFileReader() {
+            @Override
+            public List<Employee> loadEmployeesFromFile(String filePath) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void readEmployeesFromFile(String filePath, Consumer<Employee> consumer) {
+                organization.subList(0, 3).forEach(consumer);
+                throw new IllegalArgumentException("Malformed input");
+            }
+        };
+
+        Application app = new Application(failingReader);
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> app.processDataWithDiskStore("path/to/fakefile.csv", storeDirectory, 1));
+        assertEquals("Malformed input", exception.getMessage());
+        assertFalse(Files.exists(storeDirectory.resolve("index.dat")));
+        assertFalse(Files.exists(storeDirectory.resolve("records.dat")));
+    }
+
+    @Test
+    @DisplayName("Ensure that sharded processing in worker processes prints the same report as sequential processing")
+    void testShardedOutputMatchesSequentialOutput() {
+        assertSameOutputAsSequential(organization, app -> app.processDataSharded("path/to/fakefile.csv", 2));
+    }
+
+    @Test
+    @DisplayName("Ensure that only new, resolved and changed issues are printed when comparing two files")
+    void testDiffPrintsOnlyChanges() {
+        Application app = new Application(snapshotReader());
+
+        ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outContent));
+
+        app.processDiff("previous.csv", "current.csv");
+
+        String expectedOutput =
+                """
+                        Changed: Employee ID: 1, Name: Manager Boss, Issue: Earns more than expected, Discrepancy: 764500.0000, Previously: 839125.0000
+                        Resolved: Employee ID: 2, Name: Subordinate One, Issue: Earns less than expected, Discrepancy: 95500.0000
+                        New: Employee ID: 4, Name: Deep Subordinate, Issue: Earns more than expected, Discrepancy: 65000.0000""";
+        assertEquals(expectedOutput, outContent.toString().trim());
+    }
+
+    @Test
+    @DisplayName("Ensure that trends over several files are printed oldest first")
+    void testHistoryPrintsTrends() {
+        Application app = new Application(snapshotReader());
 
         ByteArrayOutputStream outContent = new ByteArrayOutputStream();
         System.setOut(new PrintStream(outContent));
 
+        app.processHistory(List.of("previous.csv", "current.csv"));
+
+        String expectedOutput =
+                """
+                        Reporting lines per period:
+                          Period: previous.csv, Headcount: 4, Average reporting line: 1.00, Longest reporting line: 2, Too many managers: 0
+                          Period: current.csv, Headcount: 5, Average reporting line: 1.40, Longest reporting line: 3, Too many managers: 0
+
+                        Repeat salary offenders:
+                          Employee ID: 1, Name: Manager Boss, Periods underpaid: 0, Periods overpaid: 2""";
+        assertEquals(expectedOutput, outContent.toString().trim());
+    }
+
+    private static EmployeeInfoFileReader readerOf(List<Employee> employees) {
+        return new EmployeeInfoFileReader() {
+            @Override
+            public List<Employee> loadEmployeesFromFile(String filePath) {
+                return employees;
+            }
+        };
+    }
+
+    private EmployeeInfoFileReader snapshotReader() {
+        return new EmployeeInfoFileReader() {
+            @Override
+            public List<Employee> loadEmployeesFromFile(String filePath) {
+                return filePath.equals("previous.csv") ? previousSnapshot : currentSnapshot;
+            }
+        };
+    }
+
+    /**
+     * Asserts that the given way of processing the employees prints exactly what {@link Application#processData} does.
+     */
+    private static void assertSameOutputAsSequential(List<Employee> employees, Consumer<Application> processing) {
+        Application app = new Application(readerOf(employees));
+
+        ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(sequentialOut));
         app.processData("path/to/fakefile.csv");
-        assertTrue(outContent.toString().trim().isEmpty());
+
+        ByteArrayOutputStream processedOut = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(processedOut));
+        processing.accept(app);
+
+        assertEquals(sequentialOut.toString(), processedOut.toString());
     }
 }
@@ -0,0 +1,79 @@
+package com.bigcompany.core;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.reader.EmployeeCsvParser;
+import com.bigcompany.reporting.ReportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares generating the report of a CSV file in a single JVM with generating it through {@link ShardCoordinator}
+ * with different numbers of worker processes. Both variants include parsing the file; the sharded one also includes
+ * writing the shard files and starting the workers, so it only pays off when the workers run on separate cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ShardCoordinatorBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "2", "4"})
+    private int workers;
+
+    private Path directory;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("shard-benchmark");
+        file = directory.resolve("employees.csv");
+        TestOrganizations.writeCsv(file, TestOrganizations.wide(size, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long singleJvm() {
+        long[] count = {0};
+        new ReportGenerator(new InMemoryEmployeeDataAccess(new EmployeeCsvParser().loadEmployeesFromFile(file.toString())))
+                .generateReport(entry -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public long sharded() {
+        long[] count = {0};
+        new ShardCoordinator(new EmployeeCsvParser(), workers)
+                .generateReport(file.toString(), directory.resolve("shards"), entry -> count[0]++);
+        return count[0];
+    }
+}
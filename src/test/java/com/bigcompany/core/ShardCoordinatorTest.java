@@ -0,0 +1,162 @@
+package com.bigcompany.core;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reader.EmployeeCsvParser;
+import com.bigcompany.reporting.ReportEntry;
+import com.bigcompany.reporting.ReportGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("The report merged from several worker processes is identical to the report of a single JVM")
+    void testShardedReportMatchesSingleReport() throws IOException {
+        // Three roots, and random managers among the earlier employees, which yields reporting lines deeper than 4
+        List<Employee> employees = TestOrganizations.random(2000, 3, 11);
+        Collections.shuffle(employees, new Random(11));
+        String file = writeCsv(employees);
+
+        List<ReportEntry> expected = new ArrayList<>();
+        new ReportGenerator(new InMemoryEmployeeDataAccess(new EmployeeCsvParser().loadEmployeesFromFile(file)))
+                .generateReport(expected::add);
+        assertTrue(expected.stream().anyMatch(entry -> entry.message().startsWith("Too many managers")));
+        assertTrue(expected.stream().anyMatch(entry -> entry.employee().managerId().isEmpty()));
+
+        for (int workers : new int[]{1, 3}) {
+            List<ReportEntry> actual = new ArrayList<>();
+            new ShardCoordinator(new EmployeeCsvParser(), workers)
+                    .generateReport(file, directory.resolve("work-" + workers), actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Shards without subtrees start no worker, and roots without subordinates are handled by the coordinator")
+    void testMoreWorkersThanSubtrees() throws IOException {
+        List<Employee> employees = List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+                new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
+                new Employee(3, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)),
+                new Employee(4, "Lone", "Root", new BigDecimal("90000"), Optional.empty()));
+        String file = writeCsv(employees);
+
+        List<ReportEntry> actual = new ArrayList<>();
+        new ShardCoordinator(new EmployeeCsvParser(), 4).generateReport(file, directory.resolve("work"), actual::add);
+
+        assertEquals(new ReportGenerator(new InMemoryEmployeeDataAccess(employees)).generateReport().entries(), actual);
+    }
+
+    @Test
+    @DisplayName("A manager missing from the file is reported before any worker is started")
+    void testUnknownManager() throws IOException {
+        String file = writeCsv(List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("100000"), Optional.empty()),
+                new Employee(2, "Lost", "Employee", new BigDecimal("50000"), Optional.of(99))));
+
+        assertThrows(EmployeeNotFoundException.class, () -> new ShardCoordinator(new EmployeeCsvParser(), 2)
+                .generateReport(file, directory.resolve("work"), entry -> fail("No entry expected")));
+    }
+
+    @Test
+    @DisplayName("Workers are started with the given maximum heap, by default a share of the current one")
+    void testWorkerHeap() throws IOException {
+        String file = writeCsv(List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("100000"), Optional.empty()),
+                new Employee(2, "Team", "Member", new BigDecimal("50000"), Optional.of(1))));
+
+        // A JVM refuses to start with a 1 MB heap, which shows that the option reaches the worker. Depending on where the
+        // JVM prints its error, the failure surfaces as a malformed entry or as the exit code of the worker
+        assertThrows(RuntimeException.class, () -> new ShardCoordinator(new EmployeeCsvParser(), 1, 1)
+                .generateReport(file, directory.resolve("work"), entry -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new ShardCoordinator(new EmployeeCsvParser(), 1, 0));
+        long maxHeapMegabytes = Runtime.getRuntime().maxMemory() / (1024 * 1024);
+        assertEquals(Math.max(64, maxHeapMegabytes / 4), ShardCoordinator.defaultWorkerHeapMegabytes(4));
+    }
+
+    @Test
+    @DisplayName("Report entries survive the round trip through a worker's output, including escaped characters")
+    void testEncodeDecode() {
+        ReportEntry entry = new ReportEntry(
+                new Employee(7, "Tab\tName", "Back\\slash\nLine\r", new BigDecimal("1234.50"), Optional.of(3)),
+                "Earns less than expected", Optional.of(new BigDecimal("10.0000")));
+        ReportEntry withoutManager = new ReportEntry(
+                new Employee(8, "Zoë", "Ångström", new BigDecimal("1E+5"), Optional.empty()),
+                "Too many managers in reporting line by 2 levels", Optional.empty());
+
+        assertFalse(ShardWorker.encode(entry).contains("\n"));
+        assertEquals(entry, ShardWorker.decode(ShardWorker.encode(entry)));
+        assertEquals(withoutManager, ShardWorker.decode(ShardWorker.encode(withoutManager)));
+        assertThrows(IllegalArgumentException.class, () -> ShardWorker.decode("1\tonly\tthree"));
+    }
+
+    @Test
+    @DisplayName("Every shard writer is closed, and failures to close do not mask the failure being thrown")
+    void testCloseAllWriters() {
+        int[] closed = {0};
+        RuntimeException failure = new RuntimeException("Reader failed");
+        ShardCoordinator.closeAll(failingWriters(closed), directory, failure);
+        assertEquals(3, closed[0]);
+        assertEquals(3, failure.getSuppressed().length);
+
+        closed[0] = 0;
+        UncheckedIOException closeFailure = assertThrows(UncheckedIOException.class,
+                () -> ShardCoordinator.closeAll(failingWriters(closed), directory, null));
+        assertEquals(3, closed[0]);
+        assertEquals(2, closeFailure.getSuppressed().length);
+    }
+
+    private static List<BufferedWriter> failingWriters(int[] closed) {
+        List<BufferedWriter> writers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            writers.add(new BufferedWriter(new Writer() {
+                @Override
+                public void write(char[] buffer, int offset, int length) {
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() throws IOException {
+                    closed[0]++;
+                    throw new IOException("Disk full");
+                }
+            }));
+        }
+        return writers;
+    }
+
+    private String writeCsv(List<Employee> employees) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Id,firstName,lastName,salary,managerId");
+        employees.forEach(employee -> lines.add(String.format("%d,%s,%s,%s,%s", employee.id(), employee.firstName(),
+                employee.lastName(), employee.salary().toPlainString(),
+                employee.managerId().map(String::valueOf).orElse(""))));
+        Path file = Files.createTempFile(directory, "employees", ".csv");
+        Files.write(file, lines);
+        return file.toString();
+    }
+}
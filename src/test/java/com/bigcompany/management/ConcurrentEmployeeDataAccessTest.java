@@ -0,0 +1,122 @@
+package com.bigcompany.management;
+
+import com.bigcompany.model.Employee;
+import com.bigcompany.reporting.ReportGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentEmployeeDataAccessTest {
+    private static final int MANAGERS = 10;
+    private static final int EMPLOYEES = 1000;
+
+    private final Employee ceo = new Employee(0, "Chief", "Executive", new BigDecimal("300000"), Optional.empty());
+
+    @Test
+    @DisplayName("Snapshots are unaffected by later updates")
+    void testSnapshotIsolation() {
+        Employee employee = new Employee(1, "Jane", "Doe", new BigDecimal("80000"), Optional.of(0));
+        var dataAccess = new ConcurrentEmployeeDataAccess(List.of(ceo, employee));
+
+        EmployeeDataAccess before = dataAccess.snapshot();
+        dataAccess.put(new Employee(2, "Jim", "Beam", new BigDecimal("90000"), Optional.of(0)));
+        dataAccess.remove(1);
+
+        assertEquals(2, dataAccess.version());
+        assertEquals(Set.of(ceo, employee), before.getAllEmployees());
+        assertEquals(Set.of(employee), before.getSubordinates(ceo));
+        assertEquals(2, dataAccess.getAllEmployees().size());
+        assertEquals(2, dataAccess.getSubordinates(ceo).iterator().next().id());
+        assertThrows(UnsupportedOperationException.class, () -> dataAccess.getSubordinates(ceo).clear());
+    }
+
+    @Test
+    @DisplayName("Readers always observe a consistent organization while it is being updated")
+    void testConcurrentReadsDuringUpdates() throws Exception {
+        var dataAccess = new ConcurrentEmployeeDataAccess(initialOrganization());
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                readers.add(executor.submit(() -> {
+                    int checkedSnapshots = 0;
+                    do {
+                        assertConsistent(dataAccess.snapshot());
+                        checkedSnapshots++;
+                    } while (writing.get());
+                    return checkedSnapshots;
+                }));
+            }
+
+            Future<?> writer = executor.submit(() -> {
+                Random random = new Random(42);
+                try {
+                    for (int update = 0; update < 300; update++) {
+                        int id = MANAGERS + 1 + random.nextInt(EMPLOYEES);
+                        int newManagerId = 1 + random.nextInt(MANAGERS);
+                        // Move two employees in a single batch
+                        dataAccess.update(List.of(
+                                employee(id, newManagerId, random.nextInt(50_000, 90_000)),
+                                employee(MANAGERS + 1 + (id % EMPLOYEES), newManagerId, random.nextInt(50_000, 90_000))
+                        ), List.of());
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            });
+
+            writer.get();
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get() > 0);
+            }
+        }
+
+        assertEquals(300, dataAccess.version());
+        assertConsistent(dataAccess.snapshot());
+    }
+
+    private void assertConsistent(EmployeeDataAccess snapshot) {
+        Set<Employee> allEmployees = snapshot.getAllEmployees();
+        assertEquals(1 + MANAGERS + EMPLOYEES, allEmployees.size());
+
+        int subordinateCount = 0;
+        for (Employee employee : allEmployees) {
+            for (Employee subordinate : snapshot.getSubordinates(employee)) {
+                assertEquals(employee.id(), subordinate.managerId().orElseThrow());
+                assertEquals(subordinate, snapshot.getById(subordinate.id()));
+                subordinateCount++;
+            }
+        }
+        assertEquals(MANAGERS + EMPLOYEES, subordinateCount);
+        assertNotNull(new ReportGenerator(snapshot).generateReport());
+    }
+
+    private List<Employee> initialOrganization() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(ceo);
+        for (int id = 1; id <= MANAGERS; id++) {
+            employees.add(new Employee(id, "Manager", "M" + id, new BigDecimal("100000"), Optional.of(0)));
+        }
+        for (int id = MANAGERS + 1; id <= MANAGERS + EMPLOYEES; id++) {
+            employees.add(employee(id, 1 + id % MANAGERS, 70_000));
+        }
+        return employees;
+    }
+
+    private static Employee employee(int id, int managerId, int salary) {
+        return new Employee(id, "Employee", "E" + id, BigDecimal.valueOf(salary), Optional.of(managerId));
+    }
+}
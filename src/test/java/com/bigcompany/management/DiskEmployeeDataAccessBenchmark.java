@@ -0,0 +1,89 @@
+package com.bigcompany.management;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.reporting.ReportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures report generation over {@link DiskEmployeeDataAccess} with page caches of different sizes relative to
+ * the store. Each trial prints the cache hit rate, which explains most of the difference between the variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DiskEmployeeDataAccessBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    /**
+     * The size of the page cache as a fraction of the total size of the store files.
+     */
+    @Param({"1.0", "0.5", "0.1", "0.01"})
+    private double cacheRatio;
+
+    private Path directory;
+    private DiskEmployeeDataAccess dataAccess;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("employee-store");
+        try (var writer = DiskEmployeeDataAccess.writer(directory)) {
+            TestOrganizations.wide(size, 42).forEach(writer::add);
+        }
+        long storeBytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            storeBytes = files.mapToLong(DiskEmployeeDataAccessBenchmark::fileSize).sum();
+        }
+        int cachePages = (int) Math.max(1, Math.ceil(storeBytes * cacheRatio / PageCache.PAGE_SIZE));
+        dataAccess = new DiskEmployeeDataAccess(directory, cachePages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        long hits = dataAccess.cacheHits();
+        long misses = dataAccess.cacheMisses();
+        System.out.printf("%ncache ratio %.2f: %d hits, %d misses, hit rate %.1f%%%n",
+                cacheRatio, hits, misses, 100.0 * hits / Math.max(1, hits + misses));
+        dataAccess.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int generateReport() {
+        return new ReportGenerator(dataAccess).generateReport().entries().size();
+    }
+
+    private static long fileSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
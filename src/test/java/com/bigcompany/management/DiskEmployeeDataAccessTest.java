@@ -0,0 +1,140 @@
+package com.bigcompany.management;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reporting.ReportGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DiskEmployeeDataAccessTest {
+    private static final Path OPEN_FILES = Path.of("/proc/self/fd");
+
+    private final Employee employee1 =
+            new Employee(1, "John", "Doe", new BigDecimal("70000"), Optional.empty());
+    private final Employee employee2 =
+            new Employee(2, "Jane", "Doe", new BigDecimal("80000.50"), Optional.of(1));
+    private final Employee employee3 =
+            new Employee(3, "Zoë", "Ångström", new BigDecimal("90000"), Optional.of(1));
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Employees and relationships are read back from the store")
+    void testReadBack() {
+        write(List.of(employee3, employee1, employee2));
+
+        try (var dataAccess = new DiskEmployeeDataAccess(directory, 4)) {
+            assertEquals(employee2, dataAccess.getById(2));
+            assertThrows(EmployeeNotFoundException.class, () -> dataAccess.getById(999));
+            assertEquals(Set.of(employee1, employee2, employee3), dataAccess.getAllEmployees());
+            assertEquals(List.of(employee1, employee2, employee3), dataAccess.streamInIdOrder().toList());
+            assertEquals(Set.of(employee2, employee3), dataAccess.getSubordinates(employee1));
+            assertTrue(dataAccess.getSubordinates(employee3).isEmpty());
+            assertEquals(List.of(employee1), dataAccess.getManagers(employee2));
+        }
+    }
+
+    @Test
+    @DisplayName("The last employee written with a given ID wins")
+    void testDuplicateIds() {
+        Employee replacement = new Employee(2, "Janet", "Doe", new BigDecimal("85000"), Optional.of(1));
+        write(List.of(employee1, employee2, replacement));
+
+        try (var dataAccess = new DiskEmployeeDataAccess(directory, 4)) {
+            assertEquals(replacement, dataAccess.getById(2));
+            assertEquals(Set.of(replacement), dataAccess.getSubordinates(employee1));
+            assertEquals(2, dataAccess.getAllEmployees().size());
+        }
+    }
+
+    @Test
+    @DisplayName("An aborted writer leaves no store behind, not even an earlier one")
+    void testAbort() {
+        write(List.of(employee1, employee2));
+
+        RuntimeException failure = new RuntimeException("Malformed input");
+        DiskEmployeeDataAccess.Writer writer = DiskEmployeeDataAccess.writer(directory);
+        writer.add(employee3);
+        writer.abort(failure);
+        writer.close();
+
+        assertEquals(0, failure.getSuppressed().length);
+        assertFalse(Files.exists(directory.resolve(DiskEmployeeDataAccess.RECORDS_FILE)));
+        assertFalse(Files.exists(directory.resolve(DiskEmployeeDataAccess.INDEX_FILE)));
+        assertFalse(Files.exists(directory.resolve(DiskEmployeeDataAccess.CHILDREN_FILE)));
+    }
+
+    @Test
+    @DisplayName("An earlier store cannot be opened while a new one is being written over it")
+    void testOverwriteInProgress() {
+        write(List.of(employee1, employee2));
+
+        try (DiskEmployeeDataAccess.Writer writer = DiskEmployeeDataAccess.writer(directory)) {
+            writer.add(employee3);
+
+            assertFalse(Files.exists(directory.resolve(DiskEmployeeDataAccess.INDEX_FILE)));
+            assertFalse(Files.exists(directory.resolve(DiskEmployeeDataAccess.CHILDREN_FILE)));
+            assertThrows(UncheckedIOException.class, () -> new DiskEmployeeDataAccess(directory, 4));
+        }
+
+        try (var dataAccess = new DiskEmployeeDataAccess(directory, 4)) {
+            assertEquals(List.of(employee3), dataAccess.streamInIdOrder().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Opening an incomplete store closes the files already opened")
+    void testOpenIncompleteStore() throws IOException {
+        assumeTrue(Files.isDirectory(OPEN_FILES), "Counting open files needs /proc");
+        write(List.of(employee1, employee2));
+        Files.delete(directory.resolve(DiskEmployeeDataAccess.CHILDREN_FILE));
+        long openFiles = countOpenFiles();
+
+        assertThrows(UncheckedIOException.class, () -> new DiskEmployeeDataAccess(directory, 4));
+        assertEquals(openFiles, countOpenFiles());
+    }
+
+    @Test
+    @DisplayName("A store with a cache much smaller than the data produces the same report as the in-memory implementation")
+    void testSmallCacheMatchesInMemoryReport() {
+        List<Employee> employees = TestOrganizations.random(5000, 1, 3);
+        write(employees);
+
+        try (var dataAccess = new DiskEmployeeDataAccess(directory, 2)) {
+            var expected = new ReportGenerator(new InMemoryEmployeeDataAccess(employees)).generateReport();
+            var actual = new ReportGenerator(dataAccess).generateReport();
+
+            assertFalse(expected.entries().isEmpty());
+            assertEquals(expected, actual);
+            assertTrue(dataAccess.cacheMisses() > 2, "Pages should have been evicted and read again");
+        }
+    }
+
+    private static long countOpenFiles() throws IOException {
+        try (Stream<Path> files = Files.list(OPEN_FILES)) {
+            return files.count();
+        }
+    }
+
+    private void write(List<Employee> employees) {
+        try (var writer = DiskEmployeeDataAccess.writer(directory)) {
+            employees.forEach(writer::add);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.bigcompany.management;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.reader.EmployeeCsvParser;
+import com.bigcompany.reporting.ReportGenerator;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares report generation over {@link InMemoryEmployeeDataAccess} and {@link OffHeapEmployeeDataAccess}.
+ * <p>
+ * Each trial generates a CSV file of a {@link TestOrganizations#wide wide} organization and loads it with {@link EmployeeCsvParser}: the in-memory variant from the parsed
+ * list, the off-heap variant by streaming the file into an {@link OffHeapEmployeeDataAccess.Builder}. The trial prints
+ * the heap retained by the loaded store, and the number, total and longest garbage collection pauses while loading
+ * and while generating reports, which shows how much the garbage collector has to work while the organization is
+ * resident. The default size keeps a run short; larger organizations need a larger heap for the in-memory variant,
+ * e.g. {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="EmployeeDataAccessBenchmark -p size=20000000 -jvmArgsAppend -Xmx24g"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class EmployeeDataAccessBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"in-memory", "off-heap"})
+    private String implementation;
+
+    private final GcPauses pauses = new GcPauses();
+    private Path file;
+    private EmployeeDataAccess dataAccess;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("employees", ".csv");
+        TestOrganizations.writeCsv(file, TestOrganizations.wide(size, 42));
+
+        long before = usedHeap();
+        pauses.start();
+        if (implementation.equals("off-heap")) {
+            OffHeapEmployeeDataAccess.Builder builder = OffHeapEmployeeDataAccess.builder();
+            new EmployeeCsvParser().readEmployeesFromFile(file.toString(), builder::add);
+            dataAccess = builder.build();
+        } else {
+            dataAccess = new InMemoryEmployeeDataAccess(new EmployeeCsvParser().loadEmployeesFromFile(file.toString()));
+        }
+        long retained = usedHeap() - before;
+        System.out.printf("%n%s: loading paused for %s%n", implementation, pauses.summary());
+        System.out.printf("%s: %d MB retained by %d employees%n", implementation, retained / (1024 * 1024), size);
+        pauses.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%s: generating reports paused for %s%n", implementation, pauses.summary());
+        pauses.stop();
+        if (dataAccess instanceof OffHeapEmployeeDataAccess offHeap) {
+            offHeap.close();
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int generateReport() {
+        return new ReportGenerator(dataAccess).generateReport().entries().size();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Records the garbage collection pauses reported by the collectors since the last {@link #start()}.
+     * Collections triggered by {@link System#gc()} are left out, as they are part of measuring the heap.
+     */
+    private static final class GcPauses {
+        private final NotificationListener listener = (notification, handback) -> {
+            if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                if (!info.getGcCause().equals("System.gc()")) {
+                    record(info.getGcInfo().getDuration());
+                }
+            }
+        };
+        private boolean listening;
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+
+        synchronized void start() {
+            if (!listening) {
+                for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                    ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+                }
+                listening = true;
+            }
+            count = 0;
+            totalMillis = 0;
+            maxMillis = 0;
+        }
+
+        synchronized void stop() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    // Not registered with this collector
+                }
+            }
+            listening = false;
+        }
+
+        synchronized String summary() {
+            return String.format("%d collections, %d ms total, %d ms longest", count, totalMillis, maxMillis);
+        }
+
+        private synchronized void record(long millis) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+    }
+}
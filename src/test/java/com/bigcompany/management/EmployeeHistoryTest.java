@@ -0,0 +1,134 @@
+package com.bigcompany.management;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reporting.ReportGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeHistoryTest {
+    private final Employee ceo = new Employee(1, "CEO", "Test", new BigDecimal("200000"), Optional.empty());
+    private final Employee manager = new Employee(2, "Manager", "Test", new BigDecimal("120000"), Optional.of(1));
+    private final Employee employee = new Employee(3, "Employee", "Test", new BigDecimal("80000"), Optional.of(2));
+
+    private EmployeeHistory history;
+
+    @BeforeEach
+    void setUp() {
+        history = new EmployeeHistory();
+        history.addSnapshot("2024-01", List.of(ceo, manager, employee));
+    }
+
+    @Test
+    @DisplayName("Every snapshot answers queries as of its own period")
+    void testSnapshotViews() {
+        Employee raised = new Employee(3, "Employee", "Test", new BigDecimal("90000"), Optional.of(2));
+        Employee hired = new Employee(4, "New", "Hire", new BigDecimal("60000"), Optional.of(1));
+        history.addSnapshot("2024-02", List.of(ceo, manager, raised, hired));
+        Employee moved = new Employee(3, "Employee", "Test", new BigDecimal("90000"), Optional.of(1));
+        history.addSnapshot("2024-03", List.of(ceo, moved, hired));
+
+        assertEquals(List.of("2024-01", "2024-02", "2024-03"), history.periods());
+        EmployeeDataAccess january = history.snapshot("2024-01");
+        EmployeeDataAccess february = history.snapshot("2024-02");
+        EmployeeDataAccess march = history.snapshot(2);
+
+        assertEquals(Set.of(ceo, manager, employee), january.getAllEmployees());
+        assertEquals(employee, january.getById(3));
+        assertEquals(raised, february.getById(3));
+        assertEquals(List.of(manager, ceo), january.getManagers(employee));
+        assertEquals(Set.of(manager, hired), february.getSubordinates(ceo));
+        assertEquals(Set.of(raised), february.getSubordinates(manager));
+        assertThrows(EmployeeNotFoundException.class, () -> january.getById(4));
+        assertThrows(EmployeeNotFoundException.class, () -> march.getById(2));
+        assertEquals(List.of(ceo), march.getManagers(moved));
+        assertEquals(Set.of(moved, hired), march.getSubordinates(ceo));
+        assertTrue(march.getSubordinates(manager).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Unchanged employees are shared between snapshots")
+    void testUnchangedEmployeesShared() {
+        Employee sameCeo = new Employee(1, "CEO", "Test", new BigDecimal("200000"), Optional.empty());
+        history.addSnapshot("2024-02", List.of(sameCeo, manager, employee));
+
+        assertSame(ceo, history.snapshot(1).getById(1));
+        assertTrue(history.changes(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Changes list hires, updates and leavers in ID order")
+    void testChanges() {
+        Employee promoted = new Employee(3, "Employee", "Test", new BigDecimal("130000"), Optional.of(1));
+        Employee hired = new Employee(5, "New", "Hire", new BigDecimal("60000"), Optional.of(3));
+        history.addSnapshot("2024-02", List.of(hired, promoted, ceo));
+
+        assertEquals(List.of(
+                new EmployeeHistory.Change(2, Optional.of(manager), Optional.empty()),
+                new EmployeeHistory.Change(3, Optional.of(employee), Optional.of(promoted)),
+                new EmployeeHistory.Change(5, Optional.empty(), Optional.of(hired))
+        ), history.changes(1));
+        assertEquals(3, history.changes(0).size());
+    }
+
+    @Test
+    @DisplayName("Snapshots iterate in ID order")
+    void testIdOrderedSpliterator() {
+        Employee negative = new Employee(-7, "Negative", "Id", new BigDecimal("50000"), Optional.of(1));
+        history.addSnapshot("2024-02", List.of(employee, negative, manager, ceo));
+
+        List<Integer> ids = StreamSupport.stream(history.snapshot(1).idOrderedSpliterator(), false)
+                .map(Employee::id)
+                .toList();
+        assertEquals(List.of(-7, 1, 2, 3), ids);
+    }
+
+    @Test
+    @DisplayName("Reports on snapshots match reports on the full data of the period")
+    void testReportsMatchInMemoryDataAccess() {
+        Map<Integer, Employee> current = new HashMap<>();
+        TestOrganizations.random(500, 1, 11).forEach(employee -> current.put(employee.id(), employee));
+        current.put(1, ceo);
+        Random random = new Random(11);
+        history = new EmployeeHistory();
+        List<List<Employee>> periods = new ArrayList<>();
+        for (int period = 0; period < 6; period++) {
+            if (period > 0) {
+                for (int i = 0; i < 40; i++) {
+                    Employee changed = current.get(2 + random.nextInt(499));
+                    current.put(changed.id(), new Employee(changed.id(), changed.firstName(), changed.lastName(),
+                            BigDecimal.valueOf(random.nextInt(40_000, 200_000)), changed.managerId()));
+                }
+            }
+            List<Employee> employees = new ArrayList<>(current.values());
+            periods.add(employees);
+            history.addSnapshot("P" + period, employees);
+        }
+
+        for (int period = 0; period < periods.size(); period++) {
+            assertEquals(new ReportGenerator(new InMemoryEmployeeDataAccess(periods.get(period))).generateReport(),
+                    new ReportGenerator(history.snapshot(period)).generateReport());
+        }
+    }
+
+    @Test
+    @DisplayName("Adding a period twice or reading an unknown period throws exception")
+    void testUnknownAndDuplicatePeriods() {
+        assertThrows(IllegalArgumentException.class, () -> history.addSnapshot("2024-01", List.of(ceo)));
+        assertThrows(IllegalArgumentException.class, () -> history.snapshot("2023-12"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.bigcompany.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyIndexTest {
+
+    @Test
+    @DisplayName("Employees are sorted by ID and managers resolved to positions")
+    void testSortedPositionsAndParents() {
+        HierarchyIndex.Builder builder = new HierarchyIndex.Builder();
+        builder.add(30, Optional.of(-5));
+        builder.add(-5, Optional.empty());
+        builder.add(10, Optional.of(30));
+
+        HierarchyIndex index = builder.build();
+
+        assertEquals(3, index.size());
+        assertEquals(-5, index.id(0));
+        assertEquals(10, index.id(1));
+        assertEquals(30, index.id(2));
+        assertEquals(HierarchyIndex.NO_MANAGER, index.parent(0));
+        assertEquals(2, index.parent(1));
+        assertEquals(0, index.parent(2));
+        assertEquals(30, index.managerId(1));
+        assertEquals(0, index.managerId(0));
+        assertEquals(2, index.ordinal(1));
+        assertEquals(1, index.positionOf(10));
+        assertTrue(index.positionOf(11) < 0);
+    }
+
+    @Test
+    @DisplayName("The last employee added with an ID wins")
+    void testDuplicateIds() {
+        HierarchyIndex.Builder builder = new HierarchyIndex.Builder();
+        builder.add(1, Optional.empty());
+        builder.add(2, Optional.of(1));
+        builder.add(2, Optional.empty());
+
+        HierarchyIndex index = builder.build();
+
+        assertEquals(3, builder.count());
+        assertEquals(2, index.size());
+        assertEquals(2, index.ordinal(1));
+        assertEquals(HierarchyIndex.NO_MANAGER, index.parent(1));
+    }
+
+    @Test
+    @DisplayName("A manager ID that belongs to no employee is marked as unknown")
+    void testUnknownManager() {
+        HierarchyIndex.Builder builder = new HierarchyIndex.Builder();
+        builder.add(1, Optional.of(99));
+
+        HierarchyIndex index = builder.build();
+
+        assertEquals(HierarchyIndex.UNKNOWN_MANAGER, index.parent(0));
+        assertEquals(99, index.managerId(0));
+    }
+}
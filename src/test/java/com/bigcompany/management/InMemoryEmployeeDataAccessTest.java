@@ -12,8 +12,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -87,4 +90,33 @@ class InMemoryEmployeeDataAccessTest {
         System.out.println(subordinates);
         assertTrue(subordinates.isEmpty());
     }
+
+    @Test
+    @DisplayName("Id-ordered spliterator traverses employees by ascending ID without sorting on each call")
+    void testIdOrderedSpliterator() {
+        dataAccess = new InMemoryEmployeeDataAccess(Arrays.asList(employee3, employee1, employee2));
+
+        List<Employee> ordered = dataAccess.streamInIdOrder().toList();
+
+        assertEquals(List.of(employee1, employee2, employee3), ordered);
+        assertTrue(dataAccess.idOrderedSpliterator().hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+    }
+
+    @Test
+    @DisplayName("Id-ordered spliterator splits for parallel traversal and keeps the encounter order")
+    void testIdOrderedSpliteratorSplits() {
+        List<Employee> employees = IntStream.rangeClosed(1, 1000)
+                .map(id -> 1001 - id)
+                .mapToObj(id -> new Employee(id, "First" + id, "Last" + id, new BigDecimal("50000"), Optional.empty()))
+                .toList();
+        dataAccess = new InMemoryEmployeeDataAccess(employees);
+
+        Spliterator<Employee> spliterator = dataAccess.idOrderedSpliterator();
+        Spliterator<Employee> prefix = spliterator.trySplit();
+
+        assertNotNull(prefix);
+        assertEquals(1000, prefix.estimateSize() + spliterator.estimateSize());
+        List<Integer> ids = dataAccess.streamInIdOrder().parallel().map(Employee::id).toList();
+        assertEquals(IntStream.rangeClosed(1, 1000).boxed().toList(), ids);
+    }
 }
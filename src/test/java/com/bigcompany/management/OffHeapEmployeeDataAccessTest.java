@@ -0,0 +1,161 @@
+package com.bigcompany.management;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.exception.EmployeeNotFoundException;
+import com.bigcompany.model.Employee;
+import com.bigcompany.reader.EmployeeInfoFileReader;
+import com.bigcompany.reporting.ReportGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapEmployeeDataAccessTest {
+    private OffHeapEmployeeDataAccess dataAccess;
+    private final Employee employee1 =
+            new Employee(1, "John", "Doe", new BigDecimal("70000"), Optional.empty());
+    private final Employee employee2 =
+            new Employee(2, "Jane", "Doe", new BigDecimal("80000.50"), Optional.of(1));
+    private final Employee employee3 =
+            new Employee(3, "Zoë", "Ångström", new BigDecimal("90000"), Optional.of(1));
+
+    @BeforeEach
+    void setUp() {
+        dataAccess = new OffHeapEmployeeDataAccess(Arrays.asList(employee3, employee1, employee2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataAccess.close();
+    }
+
+    @Test
+    @DisplayName("Employees are materialized equal to the stored ones")
+    void testGetById() {
+        assertEquals(employee1, dataAccess.getById(1));
+        assertEquals(employee2, dataAccess.getById(2));
+        assertEquals(employee3, dataAccess.getById(3));
+        assertThrows(EmployeeNotFoundException.class, () -> dataAccess.getById(999));
+    }
+
+    @Test
+    @DisplayName("Relationships are resolved from the stored indices")
+    void testRelationships() {
+        assertEquals(Set.of(employee1, employee2, employee3), dataAccess.getAllEmployees());
+        assertEquals(List.of(employee1, employee2, employee3), dataAccess.streamInIdOrder().toList());
+        assertEquals(Set.of(employee2, employee3), dataAccess.getSubordinates(employee1));
+        assertTrue(dataAccess.getSubordinates(employee2).isEmpty());
+        assertEquals(List.of(employee1), dataAccess.getManagers(employee3));
+        assertTrue(dataAccess.getManagers(employee1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("The report primitives read the columns like the materializing methods do")
+    void testReportPrimitives() {
+        Employee scaled = new Employee(4, "Scaled", "Salary", new BigDecimal("100.5"), Optional.of(3));
+        Employee deep = new Employee(5, "Deep", "Report", new BigDecimal("100"), Optional.of(3));
+        try (var offHeap = new OffHeapEmployeeDataAccess(List.of(employee1, employee2, employee3, scaled, deep))) {
+            assertArrayEquals(new int[]{1, 2, 3, 4, 5}, offHeap.streamIdsInOrder().toArray());
+            assertEquals(new BigDecimal("80000.50"), offHeap.salaryOf(2));
+            assertEquals(0, offHeap.reportingLineLength(1));
+            assertEquals(2, offHeap.reportingLineLength(5));
+            assertEquals(2, offHeap.directReportCount(1));
+            assertEquals(0, offHeap.directReportCount(5));
+            // Salaries of the same scale are added as unscaled values, others fall back to BigDecimal arithmetic
+            assertEquals(0, new BigDecimal("170000.50").compareTo(offHeap.directReportSalarySum(1)));
+            assertEquals(0, new BigDecimal("200.5").compareTo(offHeap.directReportSalarySum(3)));
+            assertEquals(BigDecimal.ZERO, offHeap.directReportSalarySum(5));
+            assertThrows(EmployeeNotFoundException.class, () -> offHeap.reportingLineLength(999));
+        }
+    }
+
+    @Test
+    @DisplayName("A circular reporting line is rejected before any manager is materialized")
+    void testCircularReportingLine() {
+        List<Employee> employees = TestOrganizations.random(1000, 1, 7);
+        employees.add(new Employee(1, "First", "Loop", new BigDecimal("1000"), Optional.of(3)));
+        employees.add(new Employee(3, "Second", "Loop", new BigDecimal("1000"), Optional.of(1)));
+        try (var circular = new OffHeapEmployeeDataAccess(employees)) {
+            assertThrows(IllegalArgumentException.class, () -> circular.reportingLineLength(500));
+            assertThrows(IllegalArgumentException.class, () -> circular.getManagers(circular.getById(3)));
+        }
+    }
+
+    @Test
+    @DisplayName("Missing managers are reported like the in-memory implementation does")
+    void testUnknownManager() {
+        Employee orphan = new Employee(4, "Orphan", "Child", new BigDecimal("1000"), Optional.of(42));
+        Employee grandchild = new Employee(5, "Grand", "Child", new BigDecimal("1000"), Optional.of(4));
+        try (var orphans = new OffHeapEmployeeDataAccess(List.of(orphan, grandchild))) {
+            assertEquals(orphan, orphans.getById(4));
+            assertThrows(EmployeeNotFoundException.class, () -> orphans.getManagers(orphan));
+            assertThrows(EmployeeNotFoundException.class, () -> orphans.getManagers(grandchild));
+        }
+    }
+
+    @Test
+    @DisplayName("A file-backed store produces the same report as the in-memory implementation")
+    void testFileBackedStoreMatchesInMemoryReport(@TempDir Path directory) {
+        List<Employee> employees = TestOrganizations.random(5000, 1, 7);
+        Path backingFile = directory.resolve("employees.bin");
+
+        try (var offHeap = new OffHeapEmployeeDataAccess(employees, backingFile)) {
+            var expected = new ReportGenerator(new InMemoryEmployeeDataAccess(employees)).generateReport();
+            var actual = new ReportGenerator(offHeap).generateReport();
+
+            assertTrue(Files.exists(backingFile));
+            assertFalse(expected.entries().isEmpty());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("A store streamed from a reader into a builder matches the in-memory implementation")
+    void testBuilderFedByReader() {
+        List<Employee> employees = TestOrganizations.random(3000, 1, 7);
+        Collections.shuffle(employees, new Random(11));
+        // A later employee with an existing ID replaces the earlier one
+        Employee renamed = new Employee(17, "Zoë", "Ångström", new BigDecimal("123.45"), Optional.of(3));
+        employees.add(renamed);
+        EmployeeInfoFileReader reader = new EmployeeInfoFileReader() {
+            @Override
+            public List<Employee> loadEmployeesFromFile(String filePath) {
+                return employees;
+            }
+        };
+
+        OffHeapEmployeeDataAccess.Builder builder = OffHeapEmployeeDataAccess.builder();
+        reader.readEmployeesFromFile("path/to/fakefile.csv", builder::add);
+        try (var offHeap = builder.build()) {
+            List<Employee> distinct = new InMemoryEmployeeDataAccess(employees).streamInIdOrder().toList();
+
+            assertEquals(renamed, offHeap.getById(17));
+            assertEquals(distinct, offHeap.streamInIdOrder().toList());
+            // The in-memory implementation keeps replaced employees as subordinates, so it is given the distinct ones
+            assertEquals(new ReportGenerator(new InMemoryEmployeeDataAccess(distinct)).generateReport(),
+                    new ReportGenerator(offHeap).generateReport());
+        }
+    }
+
+    @Test
+    @DisplayName("Salaries that do not fit the salary columns are rejected while adding")
+    void testBuilderRejectsUnsupportedSalary() {
+        OffHeapEmployeeDataAccess.Builder builder = OffHeapEmployeeDataAccess.builder();
+        Employee rich = new Employee(1, "Rich", "Person", new BigDecimal("1e30").setScale(0), Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(rich));
+    }
+}
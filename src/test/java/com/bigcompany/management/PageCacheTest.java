@@ -0,0 +1,62 @@
+package com.bigcompany.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTest {
+
+    @Test
+    @DisplayName("The least recently used page is evicted once the capacity is exceeded")
+    void testLeastRecentlyUsedEviction(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("pages.dat");
+        byte[] content = new byte[PageCache.PAGE_SIZE * 3 + 10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i / PageCache.PAGE_SIZE);
+        }
+        Files.write(file, content);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            PageCache cache = new PageCache(2);
+
+            assertEquals(0, cache.page(channel, 0)[0]);
+            assertEquals(1, cache.page(channel, 1)[0]);
+            cache.page(channel, 0);                      // page 1 is now the least recently used
+            assertEquals(2, cache.page(channel, 2)[0]);  // evicts page 1
+            cache.page(channel, 0);
+            cache.page(channel, 1);
+
+            assertEquals(2, cache.hits());
+            assertEquals(4, cache.misses());
+            assertEquals(3, cache.page(channel, 3)[9]);
+            assertEquals(0, cache.page(channel, 3)[10], "The remainder of the last page is zero-filled");
+        }
+    }
+
+    @Test
+    @DisplayName("Reads spanning page boundaries are assembled from several pages")
+    void testReadAcrossPages(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("values.dat");
+        byte[] content = new byte[PageCache.PAGE_SIZE + 16];
+        int position = PageCache.PAGE_SIZE - 2;
+        content[position] = 0x12;
+        content[position + 1] = 0x34;
+        content[position + 2] = 0x56;
+        content[position + 3] = 0x78;
+        Files.write(file, content);
+
+        try (PagedFile pagedFile = new PagedFile(file, new PageCache(1))) {
+            assertEquals(0x12345678, pagedFile.readInt(position));
+            assertEquals(0x12345678L, pagedFile.readLong(position - 4));
+            assertThrows(IndexOutOfBoundsException.class, () -> pagedFile.readInt(content.length - 2));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.bigcompany.management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentIntMapTest {
+
+    @Test
+    @DisplayName("Random puts and removes behave like a sorted map, including negative and colliding keys")
+    void testMatchesTreeMap() {
+        Random random = new Random(42);
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Mix small keys, keys sharing their low bits and the extremes of the int range
+            int key = switch (random.nextInt(4)) {
+                case 0 -> random.nextInt(500);
+                case 1 -> random.nextInt(8) << 25;
+                case 2 -> -random.nextInt(500);
+                default -> random.nextBoolean() ? Integer.MAX_VALUE - random.nextInt(3) : Integer.MIN_VALUE + random.nextInt(3);
+            };
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                String value = "v" + i;
+                map = map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+
+        PersistentIntMap<String> result = map;
+        assertEquals(expected.size(), result.size());
+        expected.forEach((key, value) -> assertSame(value, result.get(key)));
+        assertNull(result.get(12345));
+        assertEquals(new ArrayList<>(expected.values()), values(result));
+        List<Integer> keys = new ArrayList<>();
+        result.forEach((value, key) -> keys.add(key));
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+    }
+
+    @Test
+    @DisplayName("Updates leave the previous version unchanged")
+    void testPersistence() {
+        PersistentIntMap<String> first = PersistentIntMap.<String>empty().put(1, "a").put(33, "b").put(1025, "c");
+        PersistentIntMap<String> second = first.put(33, "B").remove(1).put(7, "d");
+
+        assertEquals(List.of("a", "b", "c"), values(first));
+        assertEquals(List.of("d", "B", "c"), values(second));
+        assertEquals(3, first.size());
+        assertEquals(3, second.size());
+    }
+
+    @Test
+    @DisplayName("Updates that change nothing return the same map")
+    void testNoOpUpdates() {
+        String value = "a";
+        PersistentIntMap<String> map = PersistentIntMap.<String>empty().put(1, value);
+
+        assertSame(map, map.put(1, value));
+        assertSame(map, map.remove(2));
+        assertTrue(map.remove(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Updates with an edit token produce the same map as copying updates")
+    void testEditToken() {
+        Random random = new Random(7);
+        PersistentIntMap<Integer> shared = PersistentIntMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            shared = shared.put(random.nextInt(5000), i);
+        }
+        List<Integer> sharedValues = values(shared);
+
+        PersistentIntMap<Integer> copied = shared;
+        PersistentIntMap<Integer> edited = shared;
+        Object edit = new Object();
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextBoolean()) {
+                copied = copied.remove(key);
+                edited = edited.remove(key, edit);
+            } else {
+                copied = copied.put(key, i);
+                edited = edited.put(key, i, edit);
+            }
+        }
+
+        assertEquals(copied.size(), edited.size());
+        assertEquals(values(copied), values(edited));
+        assertEquals(sharedValues, values(shared));
+    }
+
+    @Test
+    @DisplayName("Diff reports exactly the keys whose values differ")
+    void testDiff() {
+        Random random = new Random(3);
+        PersistentIntMap<Integer> before = PersistentIntMap.empty();
+        for (int i = 0; i < 10_000; i++) {
+            before = before.put(i * 7 - 30_000, i);
+        }
+        Set<Integer> expected = new HashSet<>();
+        PersistentIntMap<Integer> after = before;
+        for (int i = 0; i < 300; i++) {
+            int key = random.nextInt(10_000) * 7 - 30_000;
+            switch (random.nextInt(3)) {
+                case 0 -> after = after.remove(key);
+                case 1 -> after = after.put(key, -i);
+                default -> after = after.put(key + 1, i);
+            }
+        }
+        for (int key = -30_000; key < 40_000; key++) {
+            if (before.get(key) != after.get(key)) {
+                expected.add(key);
+            }
+        }
+
+        Set<Integer> actual = new HashSet<>();
+        PersistentIntMap.diff(before, after, actual::add);
+        assertEquals(expected, actual);
+
+        Set<Integer> none = new HashSet<>();
+        PersistentIntMap.diff(after, after, none::add);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Diff against an empty map reports every key")
+    void testDiffAgainstEmpty() {
+        PersistentIntMap<String> map = PersistentIntMap.<String>empty().put(-5, "a").put(5, "b").put(1 << 30, "c");
+        Set<Integer> keys = new HashSet<>();
+        PersistentIntMap.diff(PersistentIntMap.empty(), map, keys::add);
+        assertEquals(Set.of(-5, 5, 1 << 30), keys);
+    }
+
+    private static <V> List<V> values(PersistentIntMap<V> map) {
+        List<V> values = new ArrayList<>();
+        for (Iterator<V> iterator = map.values(); iterator.hasNext(); ) {
+            values.add(iterator.next());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,162 @@
+package com.bigcompany.reader;
+
+import com.bigcompany.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares parsing a CSV file with {@link EmployeeCsvParser} against the plain {@code split} and {@code trim} parsing
+ * it replaced, which allocates a new string for every name.
+ * <p>
+ * Names follow a Zipf distribution over a few thousand first names and tens of thousands of last names, similar to
+ * the names of a large workforce. Each trial prints the heap retained by the parsed employees.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeCsvParserBenchmark {
+    private static final int DISTINCT_FIRST_NAMES = 5_000;
+    private static final int DISTINCT_LAST_NAMES = 50_000;
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"dictionary", "split"})
+    private String parser;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("employees", ".csv");
+        Random random = new Random(42);
+        String[] firstNames = syllableNames(DISTINCT_FIRST_NAMES, random);
+        String[] lastNames = syllableNames(DISTINCT_LAST_NAMES, random);
+        double[] firstNameWeights = zipfCumulativeWeights(DISTINCT_FIRST_NAMES);
+        double[] lastNameWeights = zipfCumulativeWeights(DISTINCT_LAST_NAMES);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            for (int id = 1; id <= size; id++) {
+                String managerId = id == 1 ? "" : Integer.toString(1 + random.nextInt(Math.max(1, id / 8)));
+                writer.write(id + "," + firstNames[sample(firstNameWeights, random)] + ","
+                        + lastNames[sample(lastNameWeights, random)] + "," + random.nextInt(30_000, 200_000) + ","
+                        + managerId + "\n");
+            }
+        }
+
+        long before = usedHeapAfterCollection();
+        List<Employee> employees = parse();
+        long after = usedHeapAfterCollection();
+        System.out.printf("%n%s: %d employees retain %.1f MiB%n", parser, employees.size(), (after - before) / 1048576.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Employee> parse() {
+        return parser.equals("dictionary")
+                ? new EmployeeCsvParser().loadEmployeesFromFile(file.toString())
+                : parseWithSplit(file);
+    }
+
+    /**
+     * The parsing done by {@link EmployeeCsvParser} before names were interned, for files in the default column order.
+     */
+    private static List<Employee> parseWithSplit(Path file) {
+        List<Employee> employees = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(file)) {
+            Iterator<String> iterator = lines.iterator();
+            iterator.next();
+            while (iterator.hasNext()) {
+                String[] parts = iterator.next().split(",");
+                Optional<Integer> managerId = parts.length > 4 && !parts[4].trim().isEmpty()
+                        ? Optional.of(Integer.parseInt(parts[4].trim()))
+                        : Optional.empty();
+                employees.add(new Employee(Integer.parseInt(parts[0].trim()), parts[1].trim(), parts[2].trim(),
+                        new BigDecimal(parts[3].trim()), managerId));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return employees;
+    }
+
+    private static String[] syllableNames(int count, Random random) {
+        String[] syllables = {"an", "be", "cor", "da", "el", "fi", "gar", "ha", "is", "jo", "ka", "lin",
+                "ma", "no", "or", "pe", "qui", "ra", "so", "ta", "ul", "vi", "wen", "xa", "yo", "zel"};
+        String[] names = new String[count];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < count; ) {
+            StringBuilder name = new StringBuilder();
+            int length = 2 + random.nextInt(3);
+            for (int j = 0; j < length; j++) {
+                name.append(syllables[random.nextInt(syllables.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            if (seen.add(name.toString())) {
+                names[i++] = name.toString();
+            }
+        }
+        return names;
+    }
+
+    private static double[] zipfCumulativeWeights(int count) {
+        double[] weights = new double[count];
+        double total = 0;
+        for (int rank = 1; rank <= count; rank++) {
+            total += 1.0 / rank;
+            weights[rank - 1] = total;
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private static int sample(double[] cumulativeWeights, Random random) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+
+    private static long usedHeapAfterCollection() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
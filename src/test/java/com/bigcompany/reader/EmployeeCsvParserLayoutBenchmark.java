@@ -0,0 +1,82 @@
+package com.bigcompany.reader;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EmployeeCsvParser} on files with the same employees in different column layouts: the standard order,
+ * a reordered header, and the standard columns followed by six unused columns, as in an export of a full HR record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeCsvParserLayoutBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"standard", "reordered", "extraColumns"})
+    private String layout;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("employees", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(switch (layout) {
+                case "standard" -> "Id,firstName,lastName,salary,managerId\n";
+                case "reordered" -> "managerId,salary,lastName,Id,firstName\n";
+                default -> "Id,firstName,lastName,salary,managerId,department,title,email,location,startDate,phone\n";
+            });
+            for (Employee employee : (Iterable<Employee>) TestOrganizations.wide(size, 42)::iterator) {
+                int id = employee.id();
+                String managerId = employee.managerId().map(String::valueOf).orElse("");
+                String firstName = employee.firstName();
+                String lastName = employee.lastName();
+                String salary = employee.salary().toPlainString();
+                writer.write(switch (layout) {
+                    case "standard" -> id + "," + firstName + "," + lastName + "," + salary + "," + managerId + "\n";
+                    case "reordered" -> managerId + "," + salary + "," + lastName + "," + id + "," + firstName + "\n";
+                    default -> id + "," + firstName + "," + lastName + "," + salary + "," + managerId
+                            + ",Department " + (id % 40) + ",Senior Engineer," + firstName.toLowerCase() + "."
+                            + lastName.toLowerCase() + "@bigcompany.com,Building " + (id % 12)
+                            + ",2019-04-0" + (1 + id % 9) + ",+1 555 " + (1_000_000 + id) + "\n";
+                });
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Employee> parse() {
+        return new EmployeeCsvParser().loadEmployeesFromFile(file.toString());
+    }
+}
@@ -3,8 +3,12 @@ package com.bigcompany.reader;
 import com.bigcompany.model.Employee;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -40,4 +44,50 @@ public class EmployeeCsvParserTest {
 
         assertThrows(IllegalArgumentException.class, () -> reader.loadEmployeesFromFile(filePath));
     }
+
+    @Test
+    @DisplayName("Test that repeated names are shared and fields are trimmed")
+    public void testRepeatedNamesAreShared(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("employees.csv");
+        Files.writeString(file, """
+                managerId, salary ,lastName,firstName,Id,department
+                , 55000 , Doe ,John,1,Sales
+                1,60000,Smith, John ,2,
+                1,65000,Doe,Jane,3,,,
+                """);
+
+        List<Employee> loadedEmployees = reader.loadEmployeesFromFile(file.toString());
+
+        assertEquals(List.of(
+                new Employee(1, "John", "Doe", new BigDecimal("55000"), Optional.empty()),
+                new Employee(2, "John", "Smith", new BigDecimal("60000"), Optional.of(1)),
+                new Employee(3, "Jane", "Doe", new BigDecimal("65000"), Optional.of(1))
+        ), loadedEmployees);
+        assertSame(loadedEmployees.get(0).firstName(), loadedEmployees.get(1).firstName());
+        assertSame(loadedEmployees.get(0).lastName(), loadedEmployees.get(2).lastName());
+    }
+
+    @Test
+    @DisplayName("Test that unused columns are skipped wherever they appear in the header")
+    public void testUnusedColumnsAreSkipped(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("employees.csv");
+        Files.writeString(file, """
+                Id,department,firstName,lastName,salary,managerId,email,notes
+                1,Sales,John,Doe,55000,,john.doe@bigcompany.com,not a number
+                2,,Jane,Smith,60000,1,,
+                3,Sales,Alice,Johnson,65000,,,,,extra
+                """);
+
+        assertEquals(List.of(
+                new Employee(1, "John", "Doe", new BigDecimal("55000"), Optional.empty()),
+                new Employee(2, "Jane", "Smith", new BigDecimal("60000"), Optional.of(1)),
+                new Employee(3, "Alice", "Johnson", new BigDecimal("65000"), Optional.empty())
+        ), reader.loadEmployeesFromFile(file.toString()));
+
+        Files.writeString(file, """
+                Id,firstName,lastName,salary,managerId,email
+                1,John,,55000,,john.doe@bigcompany.com
+                """);
+        assertThrows(IllegalArgumentException.class, () -> reader.loadEmployeesFromFile(file.toString()));
+    }
 }
@@ -0,0 +1,49 @@
+package com.bigcompany.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameDictionaryTest {
+
+    @Test
+    @DisplayName("Equal names from different lines are returned as the same instance")
+    void testEqualNamesAreShared() {
+        NameDictionary dictionary = new NameDictionary();
+
+        String first = dictionary.intern("1,John,Doe", 2, 6);
+        String second = dictionary.intern("2,Jane,John", 7, 11);
+
+        assertEquals("John", first);
+        assertSame(first, second);
+        assertNotSame(first, dictionary.intern("3,Johnny,Doe", 2, 8));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Names stay distinct and shared while the dictionary grows")
+    void testGrowth() {
+        NameDictionary dictionary = new NameDictionary();
+        Map<String, String> interned = new HashMap<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            String line = "id," + "Name" + i + ",rest";
+            interned.put("Name" + i, dictionary.intern(line, 3, line.length() - 5));
+        }
+        // "Aa" and "BB" have the same hash code
+        String aa = dictionary.intern("Aa", 0, 2);
+        String bb = dictionary.intern("BB", 0, 2);
+
+        assertEquals(10_002, dictionary.size());
+        assertEquals("Aa", aa);
+        assertEquals("BB", bb);
+        interned.forEach((name, instance) -> {
+            assertEquals(name, instance);
+            assertSame(instance, dictionary.intern(name, 0, name.length()));
+        });
+    }
+}
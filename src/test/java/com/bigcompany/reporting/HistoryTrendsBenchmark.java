@@ -0,0 +1,199 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.management.EmployeeHistory;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an {@link EmployeeHistory} of monthly snapshots with one {@link InMemoryEmployeeDataAccess} per month.
+ * <p>
+ * Every month is generated with fresh {@link Employee} instances, as if it was read from its own file, and about 2%
+ * of the organization changes from one month to the next: salary changes, moves to another manager, leavers and
+ * hires. Setting up a trial prints the heap retained by all months. The benchmark computes the reporting-line figures
+ * and the salary checks of every month, with {@link HistoryTrends} for the history and with a full
+ * {@link ReportGenerator} pass per month otherwise.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HistoryTrendsBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"36"})
+    private int months;
+
+    @Param({"history", "per-month"})
+    private String implementation;
+
+    private EmployeeHistory history;
+    private List<EmployeeDataAccess> perMonth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Organization organization = new Organization(size, new Random(42));
+        long before = usedHeap();
+        history = new EmployeeHistory();
+        perMonth = new ArrayList<>();
+        for (int month = 0; month < months; month++) {
+            if (month > 0) {
+                organization.churn(size / 50);
+            }
+            List<Employee> employees = organization.snapshot();
+            if (implementation.equals("history")) {
+                history.addSnapshot("M" + month, employees);
+            } else {
+                perMonth.add(new InMemoryEmployeeDataAccess(employees));
+            }
+        }
+        System.out.printf("%n%s: %d MB retained by %d months%n", implementation,
+                (usedHeap() - before) / (1024 * 1024), months);
+    }
+
+    @Benchmark
+    public Object trends() {
+        if (implementation.equals("history")) {
+            return HistoryTrends.compute(history);
+        }
+        List<long[]> figures = new ArrayList<>();
+        for (EmployeeDataAccess dataAccess : perMonth) {
+            ReportGenerator generator = new ReportGenerator(dataAccess);
+            long[] monthFigures = new long[3];
+            dataAccess.idOrderedSpliterator().forEachRemaining(employee -> {
+                monthFigures[0] += generator.checkEmployee(employee, entry -> monthFigures[1]++, null);
+                monthFigures[2]++;
+            });
+            figures.add(monthFigures);
+        }
+        return figures;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The state of the generated organization, kept in arrays so that it costs the same in both variants.
+     */
+    private static final class Organization {
+        // Names are shared by all months, as names repeat heavily and are interned while parsing anyway
+        private static final String[] FIRST_NAMES = names("First", 5000);
+        private static final String[] LAST_NAMES = names("Last", 20000);
+
+        private final Random random;
+        private boolean[] active;
+        private int[] salaries;
+        private int[] managerIds;
+        private int[] directReports;
+        private int nextId;
+
+        Organization(int size, Random random) {
+            this.random = random;
+            active = new boolean[size * 2];
+            salaries = new int[size * 2];
+            managerIds = new int[size * 2];
+            directReports = new int[size * 2];
+            for (nextId = 1; nextId <= size; nextId++) {
+                hire(nextId, nextId == 1 ? 0 : 1 + random.nextInt(Math.max(1, nextId / 8)));
+            }
+        }
+
+        void churn(int changes) {
+            for (int i = 0; i < changes; i++) {
+                int id = randomActiveId(nextId);
+                int kind = random.nextInt(20);
+                if (kind < 10) {
+                    salaries[id] = random.nextInt(30_000, 200_000);
+                } else if (kind < 14 && id > 1) {
+                    setManager(id, randomActiveId(id));
+                } else if (kind < 17 && id > 1 && directReports[id] == 0) {
+                    active[id] = false;
+                    directReports[managerIds[id]]--;
+                } else {
+                    if (nextId == active.length) {
+                        active = Arrays.copyOf(active, nextId * 2);
+                        salaries = Arrays.copyOf(salaries, nextId * 2);
+                        managerIds = Arrays.copyOf(managerIds, nextId * 2);
+                        directReports = Arrays.copyOf(directReports, nextId * 2);
+                    }
+                    hire(nextId, id);
+                    nextId++;
+                }
+            }
+        }
+
+        List<Employee> snapshot() {
+            List<Employee> employees = new ArrayList<>();
+            for (int id = 1; id < nextId; id++) {
+                if (active[id]) {
+                    employees.add(new Employee(id, FIRST_NAMES[id % FIRST_NAMES.length], LAST_NAMES[id % LAST_NAMES.length],
+                            BigDecimal.valueOf(salaries[id]),
+                            managerIds[id] == 0 ? Optional.empty() : Optional.of(managerIds[id])));
+                }
+            }
+            return employees;
+        }
+
+        private void hire(int id, int managerId) {
+            active[id] = true;
+            salaries[id] = random.nextInt(30_000, 200_000);
+            managerIds[id] = 0;
+            setManager(id, managerId);
+        }
+
+        private void setManager(int id, int managerId) {
+            if (managerIds[id] != 0) {
+                directReports[managerIds[id]]--;
+            }
+            managerIds[id] = managerId;
+            if (managerId != 0) {
+                directReports[managerId]++;
+            }
+        }
+
+        private static String[] names(String prefix, int count) {
+            String[] names = new String[count];
+            Arrays.setAll(names, i -> prefix + i);
+            return names;
+        }
+
+        private int randomActiveId(int bound) {
+            // Managers always have a lower ID than their reports, which keeps the hierarchy free of cycles
+            int id;
+            do {
+                id = 1 + random.nextInt(bound - 1);
+            } while (!active[id]);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.EmployeeHistory;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryTrendsTest {
+    private final Employee ceo = new Employee(1, "CEO", "Boss", new BigDecimal("200000"), Optional.empty());
+    private final Employee manager = new Employee(2, "Middle", "Manager", new BigDecimal("100000"), Optional.of(1));
+    private final Employee employee = new Employee(3, "Team", "Member", new BigDecimal("90000"), Optional.of(2));
+
+    @Test
+    @DisplayName("Reporting lines and repeat offenders are reported as sections")
+    void testSections() {
+        EmployeeHistory history = new EmployeeHistory();
+        history.addSnapshot("2024-01", List.of(ceo, manager, employee));
+        Employee hired = new Employee(4, "New", "Hire", new BigDecimal("60000"), Optional.of(3));
+        history.addSnapshot("2024-02", List.of(ceo, manager, employee, hired));
+        Employee raised = new Employee(2, "Middle", "Manager", new BigDecimal("110000"), Optional.of(1));
+        history.addSnapshot("2024-03", List.of(ceo, raised, employee, hired));
+
+        assertEquals(List.of(
+                new ReportSection("Reporting lines per period", List.of(
+                        "Period: 2024-01, Headcount: 3, Average reporting line: 1.00, Longest reporting line: 2, Too many managers: 0",
+                        "Period: 2024-02, Headcount: 4, Average reporting line: 1.50, Longest reporting line: 3, Too many managers: 0",
+                        "Period: 2024-03, Headcount: 4, Average reporting line: 1.50, Longest reporting line: 3, Too many managers: 0")),
+                new ReportSection("Repeat salary offenders", List.of(
+                        "Employee ID: 1, Name: CEO Boss, Periods underpaid: 0, Periods overpaid: 3",
+                        "Employee ID: 2, Name: Middle Manager, Periods underpaid: 2, Periods overpaid: 0"))
+        ), HistoryTrends.compute(history).sections());
+    }
+
+    @Test
+    @DisplayName("Trends computed from the changes match checking every period in full")
+    void testMatchesFullRecomputation() {
+        Random random = new Random(5);
+        Map<Integer, Employee> current = new TreeMap<>();
+        current.put(1, ceo);
+        int nextId = 2;
+        for (; nextId <= 300; nextId++) {
+            current.put(nextId, newEmployee(random, nextId, randomManager(random, current)));
+        }
+
+        EmployeeHistory history = new EmployeeHistory();
+        List<List<Employee>> periods = new ArrayList<>();
+        for (int period = 0; period < 8; period++) {
+            if (period > 0) {
+                for (int i = 0; i < 15; i++) {
+                    List<Integer> ids = new ArrayList<>(current.keySet());
+                    Employee changed = current.get(ids.get(1 + random.nextInt(ids.size() - 1)));
+                    switch (random.nextInt(4)) {
+                        case 0 -> current.put(changed.id(), new Employee(changed.id(), changed.firstName(),
+                                changed.lastName(), randomSalary(random), changed.managerId()));
+                        case 1 -> {
+                            // Moving under an employee with a lower ID keeps the hierarchy free of cycles
+                            int managerId = ids.get(random.nextInt(ids.indexOf(changed.id())));
+                            current.put(changed.id(), new Employee(changed.id(), changed.firstName(),
+                                    changed.lastName(), changed.salary(), Optional.of(managerId)));
+                        }
+                        case 2 -> {
+                            current.remove(changed.id());
+                            // The direct reports of a leaver move up to the leaver's manager
+                            for (Employee subordinate : List.copyOf(current.values())) {
+                                if (subordinate.managerId().equals(Optional.of(changed.id()))) {
+                                    current.put(subordinate.id(), new Employee(subordinate.id(), subordinate.firstName(),
+                                            subordinate.lastName(), subordinate.salary(), changed.managerId()));
+                                }
+                            }
+                        }
+                        default -> {
+                            current.put(nextId, newEmployee(random, nextId, randomManager(random, current)));
+                            nextId++;
+                        }
+                    }
+                }
+            }
+            List<Employee> employees = new ArrayList<>(current.values());
+            periods.add(employees);
+            history.addSnapshot("P" + period, employees);
+        }
+
+        HistoryTrends trends = HistoryTrends.compute(history);
+
+        List<HistoryTrends.PeriodSummary> expectedPeriods = new ArrayList<>();
+        Map<Integer, int[]> expectedOffenders = new TreeMap<>();
+        for (int period = 0; period < periods.size(); period++) {
+            InMemoryEmployeeDataAccess dataAccess = new InMemoryEmployeeDataAccess(periods.get(period));
+            long total = 0;
+            int longest = 0;
+            int tooLong = 0;
+            for (Employee e : periods.get(period)) {
+                int length = dataAccess.getManagers(e).size();
+                total += length;
+                longest = Math.max(longest, length);
+                tooLong += length > ReportGenerator.MAX_ALLOWED_MANAGERS ? 1 : 0;
+            }
+            expectedPeriods.add(new HistoryTrends.PeriodSummary("P" + period, periods.get(period).size(), total,
+                    longest, tooLong));
+            for (ReportEntry entry : new ReportGenerator(dataAccess).generateReport().entries()) {
+                int[] counts = expectedOffenders.computeIfAbsent(entry.employee().id(), id -> new int[2]);
+                if (entry.message().equals(ReportGenerator.UNDERPAID_MESSAGE)) {
+                    counts[0]++;
+                } else if (entry.message().equals(ReportGenerator.OVERPAID_MESSAGE)) {
+                    counts[1]++;
+                }
+            }
+        }
+        expectedOffenders.values().removeIf(counts -> counts[0] + counts[1] == 0);
+
+        assertEquals(expectedPeriods, trends.periods());
+        assertTrue(trends.periods().stream().anyMatch(summary -> summary.tooLongReportingLines() > 0));
+        Map<Integer, int[]> actualOffenders = new HashMap<>();
+        trends.repeatOffenders(1).forEach(offender -> actualOffenders.put(offender.employee().id(),
+                new int[]{offender.periodsUnderpaid(), offender.periodsOverpaid()}));
+        assertEquals(expectedOffenders.keySet(), actualOffenders.keySet());
+        expectedOffenders.forEach((id, counts) -> assertArrayEquals(counts, actualOffenders.get(id), "Employee " + id));
+        assertTrue(trends.repeatOffenders(8).size() < trends.repeatOffenders(2).size());
+    }
+
+    private static Optional<Integer> randomManager(Random random, Map<Integer, Employee> employees) {
+        List<Integer> ids = new ArrayList<>(employees.keySet());
+        if (random.nextBoolean()) {
+            return Optional.of(ids.get(random.nextInt(ids.size())));
+        }
+        // Otherwise prefer recent employees as managers to build reporting lines longer than allowed
+        int maxId = employees.keySet().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        for (int id = Math.max(1, maxId - random.nextInt(4)); ; id--) {
+            if (employees.containsKey(id)) {
+                return Optional.of(id);
+            }
+        }
+    }
+
+    private static Employee newEmployee(Random random, int id, Optional<Integer> managerId) {
+        return new Employee(id, "First" + id, "Last" + id, randomSalary(random), managerId);
+    }
+
+    private static BigDecimal randomSalary(Random random) {
+        return BigDecimal.valueOf(random.nextInt(40_000, 200_000));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganizationAnalyticsTest {
+    private final List<Employee> employees = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("200000"), Optional.empty()),
+            new Employee(2, "Middle", "One", new BigDecimal("100000"), Optional.of(1)),
+            new Employee(3, "Middle", "Two", new BigDecimal("100000"), Optional.of(1)),
+            new Employee(4, "Middle", "Three", new BigDecimal("100000"), Optional.of(1)),
+            new Employee(5, "Single", "Report", new BigDecimal("70000"), Optional.of(2)),
+            new Employee(6, "Team", "One", new BigDecimal("70000"), Optional.of(3)),
+            new Employee(7, "Team", "Two", new BigDecimal("70000.50"), Optional.of(3))
+    );
+
+    @Test
+    @DisplayName("Span of control and per-level figures are added as report sections")
+    void testSections() {
+        Report report = new ReportGenerator(new InMemoryEmployeeDataAccess(employees))
+                .generateReport(new OrganizationAnalytics(2, 2));
+
+        assertEquals(List.of(
+                new ReportSection("Span of control", List.of(
+                        "Managers: 3, Average direct reports: 2.00",
+                        "Direct reports: 1, Managers: 1",
+                        "Direct reports: 2, Managers: 1",
+                        "Direct reports: 3, Managers: 1")),
+                new ReportSection("Levels", List.of(
+                        "Level: 0, Headcount: 1, Payroll: 200000",
+                        "Level: 1, Headcount: 3, Payroll: 300000",
+                        "Level: 2, Headcount: 3, Payroll: 210000.50"))
+        ), report.sections());
+    }
+
+    @Test
+    @DisplayName("Managers outside the span of control range are reported in the same pass as the other checks")
+    void testSpanOfControlEntries() {
+        List<ReportEntry> entries = new ArrayList<>();
+        new ReportGenerator(new InMemoryEmployeeDataAccess(employees))
+                .generateReport(entries::add, new OrganizationAnalytics(2, 2));
+
+        List<String> spanEntries = entries.stream()
+                .filter(entry -> entry.message().contains("direct reports"))
+                .map(ReportEntry::formatEntry)
+                .toList();
+        assertEquals(List.of(
+                "Employee ID: 1, Name: Manager Boss, Issue: Too many direct reports by 1",
+                "Employee ID: 2, Name: Middle One, Issue: Too few direct reports by 1"
+        ), spanEntries);
+        assertEquals(new ReportGenerator(new InMemoryEmployeeDataAccess(employees)).generateReport().entries(),
+                entries.stream().filter(entry -> !spanEntries.contains(entry.formatEntry())).toList());
+    }
+
+    @Test
+    @DisplayName("Sections are printed after the report entries")
+    void testFormat() {
+        Report report = new Report(
+                List.of(new ReportEntry(employees.get(1), "Issue", Optional.empty())),
+                List.of(new ReportSection("First", List.of("a", "b")), new ReportSection("Second", List.of())));
+
+        assertEquals("""
+                Employee ID: 2, Name: Middle One, Issue: Issue
+
+                First:
+                  a
+                  b
+
+                Second:""", report.format());
+    }
+
+    @Test
+    @DisplayName("An empty range of direct reports is rejected")
+    void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> new OrganizationAnalytics(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new OrganizationAnalytics(5, 4));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bigcompany.reporting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    @Test
+    @DisplayName("A sketch of fewer values than its capacity is exact")
+    void testSmallSketchIsExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int value = 100; value >= 1; value--) {
+            sketch.update(value);
+        }
+
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(90, sketch.quantile(0.9));
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(100, sketch.quantile(1));
+        assertEquals(0, sketch.rankErrorBound());
+        assertEquals(100, sketch.retainedItems());
+    }
+
+    @Test
+    @DisplayName("Quantiles of a large stream stay within the documented rank error and memory bounds")
+    void testErrorAndMemoryBounds() {
+        int n = 1_000_000;
+        double[] values = new Random(7).doubles(n, 30_000, 200_000).toArray();
+        QuantileSketch sketch = new QuantileSketch();
+        Arrays.stream(values).forEach(sketch::update);
+        Arrays.sort(values);
+
+        int levels = (int) Math.ceil(Math.log((double) n / QuantileSketch.DEFAULT_CAPACITY) / Math.log(2)) + 1;
+        assertTrue(sketch.rankErrorBound() <= (long) n * levels / (QuantileSketch.DEFAULT_CAPACITY - 1));
+        assertTrue(sketch.retainedItems() <= QuantileSketch.DEFAULT_CAPACITY * levels);
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            long error = Math.abs(rank(values, sketch.quantile(q)) - (long) (q * n));
+            assertTrue(error <= sketch.rankErrorBound(), "Error of quantile " + q + " exceeds the bound");
+            assertTrue(error <= n / 100, "Error of quantile " + q + " is " + error);
+        }
+    }
+
+    @Test
+    @DisplayName("Merged sketches summarize the union of their streams")
+    void testMerge() {
+        Random random = new Random(11);
+        double[] values = new double[200_000];
+        QuantileSketch merged = new QuantileSketch(64);
+        for (int part = 0; part < 100; part++) {
+            QuantileSketch sketch = new QuantileSketch(64);
+            for (int i = 0; i < 2_000; i++) {
+                double value = random.nextGaussian() * 10_000 + 100_000 + part * 100;
+                values[part * 2_000 + i] = value;
+                sketch.update(value);
+            }
+            merged.merge(sketch);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, merged.count());
+        assertEquals(values[0], merged.quantile(0));
+        assertEquals(values[values.length - 1], merged.quantile(1));
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            long error = Math.abs(rank(values, merged.quantile(q)) - (long) (q * values.length));
+            assertTrue(error <= merged.rankErrorBound(), "Error of quantile " + q + " exceeds the bound");
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1));
+        assertThrows(IllegalStateException.class, () -> new QuantileSketch().quantile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch().quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch().update(Double.NaN));
+    }
+
+    private static long rank(double[] sortedValues, double value) {
+        int index = Arrays.binarySearch(sortedValues, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportDiffTest {
+    private final Employee employee1 = new Employee(1, "John", "Doe", new BigDecimal("70000"), Optional.empty());
+    private final Employee employee2 = new Employee(2, "Jane", "Doe", new BigDecimal("80000"), Optional.of(1));
+    private final Employee employee3 = new Employee(3, "Jim", "Beam", new BigDecimal("90000"), Optional.of(2));
+
+    @Test
+    @DisplayName("New, resolved and changed issues are reported in employee ID order")
+    void testChangesAreClassified() {
+        Report previous = new Report(List.of(
+                underpaid(employee1, "100"),
+                underpaid(employee2, "200"),
+                longReportingLine(employee2, 1),
+                overpaid(employee3, "300")));
+        Report current = new Report(List.of(
+                overpaid(employee1, "50"),
+                underpaid(employee2, "200.00"),
+                longReportingLine(employee2, 2),
+                overpaid(employee3, "300")));
+
+        List<String> changes = new ArrayList<>();
+        ReportDiff.diff(previous, current, change -> changes.add(change.formatChange()));
+
+        assertEquals(List.of(
+                "Resolved: Employee ID: 1, Name: John Doe, Issue: Earns less than expected, Discrepancy: 100",
+                "New: Employee ID: 1, Name: John Doe, Issue: Earns more than expected, Discrepancy: 50",
+                "Changed: Employee ID: 2, Name: Jane Doe, Issue: Too many managers in reporting line by 2 levels, "
+                        + "Previously: Too many managers in reporting line by 1 levels"
+        ), changes);
+    }
+
+    @Test
+    @DisplayName("Changed discrepancy amounts are reported with the previous amount")
+    void testChangedDiscrepancy() {
+        List<ReportChange> changes = new ArrayList<>();
+        ReportDiff.diff(new Report(List.of(underpaid(employee2, "200"))),
+                new Report(List.of(underpaid(employee2, "250"))), changes::add);
+
+        assertEquals(1, changes.size());
+        assertEquals(ReportChange.Type.CHANGED, changes.getFirst().type());
+        assertEquals("Changed: Employee ID: 2, Name: Jane Doe, Issue: Earns less than expected, Discrepancy: 250, "
+                + "Previously: 200", changes.getFirst().formatChange());
+    }
+
+    @Test
+    @DisplayName("Entries remaining on either side are reported as new or resolved")
+    void testTrailingEntries() {
+        List<ReportChange> changes = new ArrayList<>();
+        ReportDiff.diff(new Report(List.of(underpaid(employee3, "1"))),
+                new Report(List.of(underpaid(employee1, "1"), underpaid(employee2, "1"))), changes::add);
+
+        assertEquals(List.of(ReportChange.Type.NEW, ReportChange.Type.NEW, ReportChange.Type.RESOLVED),
+                changes.stream().map(ReportChange::type).toList());
+    }
+
+    @Test
+    @DisplayName("Entries out of employee ID order are rejected")
+    void testOutOfOrderEntriesAreRejected() {
+        Report unordered = new Report(List.of(underpaid(employee2, "1"), underpaid(employee1, "1")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportDiff.diff(unordered, new Report(List.of()), change -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportDiff.diff(new Report(List.of()), unordered, change -> { }));
+    }
+
+    @Test
+    @DisplayName("Comparing generated reports of two organizations reports only what differs")
+    void testGeneratedReports() {
+        List<Employee> previousEmployees = List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+                new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
+                new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+                new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)));
+        List<Employee> currentEmployees = List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+                new Employee(2, "Subordinate", "One", new BigDecimal("100000"), Optional.of(1)),
+                new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+                new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)));
+
+        List<ReportChange> changes = new ArrayList<>();
+        ReportDiff diff = new ReportDiff(
+                new ReportGenerator(new InMemoryEmployeeDataAccess(previousEmployees)).generateReport().entries().iterator(),
+                changes::add);
+        new ReportGenerator(new InMemoryEmployeeDataAccess(currentEmployees)).generateReport(diff);
+        diff.finish();
+
+        assertEquals(List.of(ReportChange.Type.CHANGED, ReportChange.Type.RESOLVED),
+                changes.stream().map(ReportChange::type).toList());
+        assertEquals(1, changes.get(0).current().orElseThrow().employee().id());
+        assertEquals(2, changes.get(1).previous().orElseThrow().employee().id());
+    }
+
+    private static ReportEntry underpaid(Employee employee, String discrepancy) {
+        return new ReportEntry(employee, ReportGenerator.UNDERPAID_MESSAGE, Optional.of(new BigDecimal(discrepancy)));
+    }
+
+    private static ReportEntry overpaid(Employee employee, String discrepancy) {
+        return new ReportEntry(employee, ReportGenerator.OVERPAID_MESSAGE, Optional.of(new BigDecimal(discrepancy)));
+    }
+
+    private static ReportEntry longReportingLine(Employee employee, int excess) {
+        return new ReportEntry(employee,
+                String.format("%s by %d levels", ReportGenerator.LONG_REPORTING_LINE_MESSAGE, excess), Optional.empty());
+    }
+}
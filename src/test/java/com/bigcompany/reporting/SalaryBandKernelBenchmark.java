@@ -0,0 +1,70 @@
+package com.bigcompany.reporting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and the Vector API salary band kernels.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SalaryBandKernelBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SalaryBandKernelBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int managers;
+
+    private long[] salaries;
+    private long[] averages;
+    private boolean[] underpaid;
+    private boolean[] overpaid;
+    private long[] discrepancies;
+
+    private final SalaryBandKernel scalarKernel = new ScalarSalaryBandKernel();
+    private SalaryBandKernel vectorKernel;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        salaries = new long[managers];
+        averages = new long[managers];
+        for (int i = 0; i < managers; i++) {
+            averages[i] = random.nextLong(3_000_000L, 20_000_000L);
+            salaries[i] = averages[i] + random.nextLong(-averages[i] / 2, averages[i]);
+        }
+        underpaid = new boolean[managers];
+        overpaid = new boolean[managers];
+        discrepancies = new long[managers];
+        vectorKernel = SalaryBandKernel.preferred();
+    }
+
+    @Benchmark
+    public long[] scalar() {
+        scalarKernel.evaluate(salaries, averages, 120, 100, 150, 100, underpaid, overpaid, discrepancies);
+        return discrepancies;
+    }
+
+    @Benchmark
+    public long[] vector() {
+        vectorKernel.evaluate(salaries, averages, 120, 100, 150, 100, underpaid, overpaid, discrepancies);
+        return discrepancies;
+    }
+}
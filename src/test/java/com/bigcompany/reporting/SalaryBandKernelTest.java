@@ -0,0 +1,113 @@
+package com.bigcompany.reporting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SalaryBandKernelTest {
+    private static final long MIN_MULTIPLIER = 120; // 1.20
+    private static final long MAX_MULTIPLIER = 150; // 1.50
+    private static final long SCALE_FACTOR = 100;
+
+    @Test
+    @DisplayName("Scalar kernel agrees with BigDecimal comparisons on band boundaries")
+    void testScalarKernelMatchesBigDecimal() {
+        long[][] data = boundaryData();
+        long[] salaries = data[0];
+        long[] averages = data[1];
+        Result result = evaluate(new ScalarSalaryBandKernel(), salaries, averages);
+
+        for (int i = 0; i < salaries.length; i++) {
+            BigDecimal salary = BigDecimal.valueOf(salaries[i], 2);
+            BigDecimal average = BigDecimal.valueOf(averages[i], 2);
+            BigDecimal minRequired = average.multiply(ReportGenerator.MIN_SALARY_MULTIPLIER);
+            BigDecimal maxAllowed = average.multiply(ReportGenerator.MAX_SALARY_MULTIPLIER);
+
+            boolean underpaid = salary.compareTo(minRequired) < 0;
+            boolean overpaid = salary.compareTo(maxAllowed) > 0;
+            assertEquals(underpaid, result.underpaid[i], "underpaid at index " + i);
+            assertEquals(overpaid, result.overpaid[i], "overpaid at index " + i);
+
+            BigDecimal expectedDiscrepancy = underpaid ? minRequired.subtract(salary)
+                    : overpaid ? salary.subtract(maxAllowed)
+                    : BigDecimal.ZERO;
+            assertEquals(0, expectedDiscrepancy.compareTo(BigDecimal.valueOf(result.discrepancies[i], 4)),
+                    "discrepancy at index " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Vector kernel produces exactly the same masks and discrepancies as the scalar kernel")
+    void testVectorKernelMatchesScalarKernel() {
+        SalaryBandKernel kernel = SalaryBandKernel.preferred();
+        assumeTrue(kernel instanceof VectorSalaryBandKernel, "Vector API is not available");
+
+        long[][] boundary = boundaryData();
+        assertSameResults(kernel, boundary[0], boundary[1]);
+
+        Random random = new Random(42);
+        for (int length : new int[]{0, 1, 7, 64, 1001}) {
+            long[] salaries = new long[length];
+            long[] averages = new long[length];
+            for (int i = 0; i < length; i++) {
+                averages[i] = random.nextLong(1, 100_000_000L);
+                salaries[i] = averages[i] + random.nextLong(-averages[i], averages[i]);
+            }
+            assertSameResults(kernel, salaries, averages);
+        }
+    }
+
+    private static void assertSameResults(SalaryBandKernel kernel, long[] salaries, long[] averages) {
+        Result expected = evaluate(new ScalarSalaryBandKernel(), salaries, averages);
+        Result actual = evaluate(kernel, salaries, averages);
+        assertArrayEquals(expected.underpaid, actual.underpaid);
+        assertArrayEquals(expected.overpaid, actual.overpaid);
+        assertArrayEquals(expected.discrepancies, actual.discrepancies);
+    }
+
+    /**
+     * Salaries exactly on, one cent below and one cent above both band limits, for averages of various sizes.
+     * The number of entries is deliberately not a multiple of any vector length.
+     */
+    private static long[][] boundaryData() {
+        long[] baseAverages = {0, 1, 5, 100, 333, 1_000_00, 7_654_321_09L, 99_999_999_99L};
+        int perAverage = 7;
+        long[] salaries = new long[baseAverages.length * perAverage];
+        long[] averages = new long[salaries.length];
+        for (int a = 0; a < baseAverages.length; a++) {
+            long average = baseAverages[a];
+            long minRequired = average * MIN_MULTIPLIER / SCALE_FACTOR;
+            long maxAllowed = average * MAX_MULTIPLIER / SCALE_FACTOR;
+            long[] candidates = {minRequired - 1, minRequired, minRequired + 1, maxAllowed - 1, maxAllowed, maxAllowed + 1, 0};
+            for (int c = 0; c < perAverage; c++) {
+                salaries[a * perAverage + c] = candidates[c];
+                averages[a * perAverage + c] = average;
+            }
+        }
+        return new long[][]{salaries, averages};
+    }
+
+    private static Result evaluate(SalaryBandKernel kernel, long[] salaries, long[] averages) {
+        Result result = new Result(salaries.length);
+        kernel.evaluate(salaries, averages, MIN_MULTIPLIER, SCALE_FACTOR, MAX_MULTIPLIER, SCALE_FACTOR,
+                result.underpaid, result.overpaid, result.discrepancies);
+        return result;
+    }
+
+    private static final class Result {
+        final boolean[] underpaid;
+        final boolean[] overpaid;
+        final long[] discrepancies;
+
+        Result(int length) {
+            underpaid = new boolean[length];
+            overpaid = new boolean[length];
+            discrepancies = new long[length];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryBandSimulatorTest {
+    private final List<Employee> employees = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("1000000"), Optional.empty()),
+            new Employee(2, "Subordinate", "One", new BigDecimal("500"), Optional.of(1)),
+            new Employee(3, "Subordinate", "Two", new BigDecimal("214000"), Optional.of(1)),
+            new Employee(4, "Deep", "Subordinate", new BigDecimal("80000"), Optional.of(2)),
+            new Employee(5, "Jane", "Doe", new BigDecimal("177700"), Optional.of(3)),
+            new Employee(6, "Ella", "Fitzgerald", new BigDecimal("148000"), Optional.of(5)),
+            new Employee(7, "Mason", "Alexander", new BigDecimal("120000"), Optional.of(6)),
+            new Employee(8, "Mason", "Alexander", new BigDecimal("100000"), Optional.of(7))
+    );
+
+    @Test
+    @DisplayName("Default scenario matches the report generated with the default thresholds")
+    void testDefaultScenarioMatchesReport() {
+        var dataAccess = new InMemoryEmployeeDataAccess(employees);
+        var simulator = new SalaryBandSimulator(dataAccess);
+
+        SalaryBandScenarioResult result = simulator.evaluate(SalaryBandScenario.DEFAULT);
+        Report report = new ReportGenerator(dataAccess).generateReport();
+
+        assertEquals(countEntries(report, "Earns less than expected"), result.underpaidManagers());
+        assertEquals(sumDiscrepancies(report, "Earns less than expected"), result.totalUnderpayment());
+        assertEquals(countEntries(report, "Earns more than expected"), result.overpaidManagers());
+        assertEquals(sumDiscrepancies(report, "Earns more than expected"), result.totalOverpayment());
+        assertEquals(countEntries(report, "Too many managers"), result.longReportingLines());
+        assertEquals(new BigDecimal("95500.0000"), result.totalUnderpayment());
+        assertEquals(new BigDecimal("839125.0000"), result.totalOverpayment());
+        assertEquals(1, result.totalExcessManagers());
+    }
+
+    @Test
+    @DisplayName("Alternative thresholds are evaluated without rebuilding the simulator")
+    void testAlternativeScenarios() {
+        var simulator = new SalaryBandSimulator(new InMemoryEmployeeDataAccess(employees));
+
+        var lenient = new SalaryBandScenario(new BigDecimal("0.001"), new BigDecimal("10"), 6);
+        var strict = new SalaryBandScenario(new BigDecimal("1.30"), new BigDecimal("1.30"), 2);
+        List<SalaryBandScenarioResult> results = simulator.evaluateAll(List.of(lenient, strict));
+
+        assertEquals(lenient, results.get(0).scenario());
+        assertEquals(0, results.get(0).underpaidManagers());
+        assertEquals(0, results.get(0).overpaidManagers());
+        assertEquals(0, results.get(0).longReportingLines());
+
+        // Reporting line lengths are 0, 1, 1, 2, 2, 3, 4, 5: with a limit of 2, three employees exceed it by 1 + 2 + 3
+        assertEquals(strict, results.get(1).scenario());
+        assertEquals(3, results.get(1).longReportingLines());
+        assertEquals(6, results.get(1).totalExcessManagers());
+        assertEquals(6, results.get(1).underpaidManagers() + results.get(1).overpaidManagers());
+    }
+
+    @Test
+    @DisplayName("Salary exactly on a band boundary is not a violation")
+    void testBoundarySalaryIsNotReported() {
+        var simulator = new SalaryBandSimulator(new InMemoryEmployeeDataAccess(List.of(
+                new Employee(1, "Manager", "Exact", new BigDecimal("120.00"), Optional.empty()),
+                new Employee(2, "Sub", "One", new BigDecimal("100"), Optional.of(1))
+        )));
+
+        SalaryBandScenarioResult atMin = simulator.evaluate(
+                new SalaryBandScenario(new BigDecimal("1.2"), new BigDecimal("1.5"), 4));
+        SalaryBandScenarioResult atMax = simulator.evaluate(
+                new SalaryBandScenario(new BigDecimal("1.000"), new BigDecimal("1.200"), 4));
+        SalaryBandScenarioResult aboveMax = simulator.evaluate(
+                new SalaryBandScenario(new BigDecimal("1.000"), new BigDecimal("1.199"), 4));
+
+        assertEquals(0, atMin.underpaidManagers());
+        assertEquals(0, atMax.overpaidManagers());
+        assertEquals(1, aboveMax.overpaidManagers());
+        assertEquals(new BigDecimal("0.10000"), aboveMax.totalOverpayment());
+    }
+
+    @Test
+    @DisplayName("Invalid scenarios and salaries are rejected")
+    void testInvalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SalaryBandScenario(new BigDecimal("1.5"), new BigDecimal("1.2"), 4));
+
+        var simulator = new SalaryBandSimulator(new InMemoryEmployeeDataAccess(employees));
+        assertThrows(IllegalArgumentException.class, () -> simulator.evaluate(
+                new SalaryBandScenario(new BigDecimal("1.0000001"), new BigDecimal("1.5"), 4)));
+
+        var fractionalCents = List.of(
+                new Employee(1, "Manager", "Boss", new BigDecimal("100.001"), Optional.empty()),
+                new Employee(2, "Sub", "One", new BigDecimal("100"), Optional.of(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SalaryBandSimulator(new InMemoryEmployeeDataAccess(fractionalCents)));
+    }
+
+    private static int countEntries(Report report, String messagePrefix) {
+        return (int) report.entries().stream()
+                .filter(entry -> entry.message().startsWith(messagePrefix))
+                .count();
+    }
+
+    private static BigDecimal sumDiscrepancies(Report report, String message) {
+        return report.entries().stream()
+                .filter(entry -> entry.message().equals(message))
+                .map(entry -> entry.discrepancy().orElseThrow())
+                .reduce(BigDecimal.ZERO.setScale(4), BigDecimal::add);
+    }
+}
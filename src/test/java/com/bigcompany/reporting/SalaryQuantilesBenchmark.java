@@ -0,0 +1,79 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.EmployeeDataAccess;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SalaryQuantiles} with exact per-level and per-department medians and 90th percentiles computed by
+ * collecting and sorting the {@link BigDecimal} salaries of every group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SalaryQuantilesBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private EmployeeDataAccess dataAccess;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataAccess = new InMemoryEmployeeDataAccess(TestOrganizations.wide(size, 42).toList());
+    }
+
+    @Benchmark
+    public List<ReportSection> sketches() {
+        return SalaryQuantiles.compute(dataAccess).sections();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> exact() {
+        Map<Integer, List<BigDecimal>> salariesByLevel = new HashMap<>();
+        Map<Integer, List<BigDecimal>> salariesByDepartment = new HashMap<>();
+        dataAccess.idOrderedSpliterator().forEachRemaining(employee -> {
+            List<Employee> managers = dataAccess.getManagers(employee);
+            salariesByLevel.computeIfAbsent(managers.size(), level -> new ArrayList<>()).add(employee.salary());
+            // The department is the subtree of the manager right below the head of the organization
+            Employee department = managers.size() >= 2 ? managers.get(managers.size() - 2) : employee;
+            if (!managers.isEmpty()) {
+                salariesByDepartment.computeIfAbsent(department.id(), id -> new ArrayList<>()).add(employee.salary());
+            }
+        });
+
+        Map<String, BigDecimal> quantiles = new HashMap<>();
+        salariesByLevel.forEach((level, salaries) -> addQuantiles(quantiles, "level " + level, salaries));
+        salariesByDepartment.forEach((id, salaries) -> addQuantiles(quantiles, "department " + id, salaries));
+        return quantiles;
+    }
+
+    private static void addQuantiles(Map<String, BigDecimal> quantiles, String group, List<BigDecimal> salaries) {
+        salaries.sort(null);
+        quantiles.put(group + " median", salaries.get((salaries.size() - 1) / 2));
+        quantiles.put(group + " p90", salaries.get((int) ((salaries.size() - 1) * 0.9)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.bigcompany.reporting;
+
+import com.bigcompany.TestOrganizations;
+import com.bigcompany.management.InMemoryEmployeeDataAccess;
+import com.bigcompany.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryQuantilesTest {
+    private final List<Employee> employees = List.of(
+            new Employee(1, "Manager", "Boss", new BigDecimal("300000"), Optional.empty()),
+            new Employee(2, "Head", "One", new BigDecimal("150000"), Optional.of(1)),
+            new Employee(3, "Head", "Two", new BigDecimal("160000"), Optional.of(1)),
+            new Employee(4, "Team", "One", new BigDecimal("70000"), Optional.of(2)),
+            new Employee(5, "Team", "Two", new BigDecimal("80000"), Optional.of(2)),
+            new Employee(6, "Team", "Three", new BigDecimal("90000"), Optional.of(2)),
+            new Employee(7, "Team", "Four", new BigDecimal("100000"), Optional.of(3)),
+            new Employee(8, "Deep", "One", new BigDecimal("50000"), Optional.of(7))
+    );
+
+    @Test
+    @DisplayName("Quantiles per level and per department are computed from the hierarchy")
+    void testSmallOrganization() {
+        SalaryQuantiles quantiles = SalaryQuantiles.compute(new InMemoryEmployeeDataAccess(employees));
+
+        assertEquals(4, quantiles.levels());
+        assertEquals(4, quantiles.level(2).orElseThrow().count());
+        assertEquals(80000, quantiles.level(2).orElseThrow().quantile(0.5));
+        assertEquals(4, quantiles.subtree(2).orElseThrow().count());
+        assertEquals(80000, quantiles.subtree(2).orElseThrow().quantile(0.5));
+        assertEquals(3, quantiles.subtree(3).orElseThrow().count());
+        assertEquals(8, quantiles.subtree(1).orElseThrow().count());
+        assertTrue(quantiles.subtree(7).isEmpty(), "Only the top two levels are retained");
+        assertTrue(quantiles.level(4).isEmpty());
+
+        assertEquals(List.of(
+                "Level: 0, Employees: 1, Median: 300000.00, P90: 300000.00",
+                "Level: 1, Employees: 2, Median: 150000.00, P90: 160000.00",
+                "Level: 2, Employees: 4, Median: 80000.00, P90: 100000.00",
+                "Level: 3, Employees: 1, Median: 50000.00, P90: 50000.00"
+        ), quantiles.sections().getFirst().lines());
+        assertEquals("Employee ID: 2, Name: Head One, Level: 1, Employees: 4, Median: 80000.00, P90: 150000.00",
+                quantiles.sections().get(1).lines().get(1));
+    }
+
+    @Test
+    @DisplayName("Subtree sketches merged bottom-up agree with the level sketches of a large organization")
+    void testLargeOrganization() {
+        List<Employee> organization = TestOrganizations.wide(100_000, 5).toList();
+
+        SalaryQuantiles quantiles = SalaryQuantiles.compute(new InMemoryEmployeeDataAccess(organization), 2, 128);
+
+        QuantileSketch root = quantiles.subtree(1).orElseThrow();
+        assertEquals(organization.size(), root.count());
+        long levelTotal = 0;
+        for (int level = 0; level < quantiles.levels(); level++) {
+            levelTotal += quantiles.level(level).orElseThrow().count();
+        }
+        assertEquals(organization.size(), levelTotal);
+        // Salaries are uniform between 30,000 and 200,000, so the median is close to 115,000
+        assertEquals(115_000, root.quantile(0.5), 170_000 * 0.02);
+    }
+}